@@ -3,6 +3,7 @@ plugins {
     signing
     `maven-publish`
     id("net.minecrell.licenser") version "0.4.1"
+    id("me.champeau.gradle.jmh") version "0.4.7"
 }
 
 java {
@@ -17,14 +18,24 @@ dependencies {
     api("org.cadixdev:bombe:0.3.4")
     compileOnly("org.cadixdev:lorenz:0.5.5")
 
+    testImplementation("org.cadixdev:lorenz:0.5.5")
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.3.1")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.3.1")
+
+    jmh("org.cadixdev:lorenz:0.5.5")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+jmh {
+    jmhVersion = "1.21"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = file("$buildDir/reports/jmh/results.json")
+}
+
 val sourceJar = task<Jar>("sourceJar") {
     classifier = "sources"
     from(sourceSets["main"].allSource)
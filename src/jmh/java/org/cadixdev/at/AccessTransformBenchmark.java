@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compare gc.alloc.rate.norm from the GC profiler for the memory difference
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessTransformBenchmark {
+
+    @Param("100000")
+    public int entries;
+
+    private AccessChange[] accessChanges;
+    private ModifierChange[] finalChanges;
+    private String[] fieldNames;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        AccessChange[] accessValues = AccessChange.values();
+        ModifierChange[] finalValues = ModifierChange.values();
+
+        this.accessChanges = new AccessChange[this.entries];
+        this.finalChanges = new ModifierChange[this.entries];
+        this.fieldNames = new String[this.entries];
+        for (int i = 0; i < this.entries; i++) {
+            this.accessChanges[i] = accessValues[random.nextInt(accessValues.length)];
+            this.finalChanges[i] = finalValues[random.nextInt(finalValues.length)];
+            // Every field is merged twice to measure both inserting and merging into existing entries
+            this.fieldNames[i] = "field" + (i >> 1);
+        }
+    }
+
+    @Benchmark
+    public AccessTransform[] create() {
+        AccessTransform[] transforms = new AccessTransform[this.entries];
+        for (int i = 0; i < this.entries; i++) {
+            transforms[i] = AccessTransform.of(this.accessChanges[i], this.finalChanges[i]);
+        }
+        return transforms;
+    }
+
+    @Benchmark
+    public void merge(Blackhole blackhole) {
+        AccessTransform result = AccessTransform.EMPTY;
+        for (int i = 0; i < this.entries; i++) {
+            AccessTransform transform = AccessTransform.of(this.accessChanges[i], this.finalChanges[i]);
+            blackhole.consume(transform.merge(result));
+            result = result.merge(transform);
+        }
+        blackhole.consume(result);
+    }
+
+    @Benchmark
+    public AccessTransformSet mergeFields() {
+        AccessTransformSet set = AccessTransformSet.create();
+        AccessTransformSet.Class classSet = set.getOrCreateClass("test/Benchmark");
+        for (int i = 0; i < this.entries; i++) {
+            classSet.mergeField(this.fieldNames[i], AccessTransform.of(this.accessChanges[i], this.finalChanges[i]));
+        }
+        return set;
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessTransformSetBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    private AccessTransformSet set;
+    private AccessTransformSet other;
+    private MappingSet mappings;
+    private AccessTransformSetRemapper remapper;
+
+    @Setup
+    public void setup() {
+        this.set = SyntheticAccessTransforms.create(this.entries);
+        this.other = SyntheticAccessTransforms.create(this.entries);
+        this.other.getClasses().values().forEach(classSet -> classSet.mergeAllMethods(AccessTransform.PUBLIC));
+        this.mappings = SyntheticAccessTransforms.createMappings(this.entries);
+        this.remapper = AccessTransformSetRemapper.compile(this.mappings);
+    }
+
+    @Benchmark
+    public AccessTransformSet create() {
+        return SyntheticAccessTransforms.create(AccessTransformSet.create(), this.entries);
+    }
+
+    @Benchmark
+    public AccessTransformSet createCompact() {
+        return SyntheticAccessTransforms.create(AccessTransformSet.createCompact(), this.entries);
+    }
+
+    @Benchmark
+    public AccessTransformSet merge() {
+        AccessTransformSet result = AccessTransformSet.create();
+        result.merge(this.set);
+        result.merge(this.other);
+        return result;
+    }
+
+    @Benchmark
+    public AccessTransformSet remap() {
+        return this.set.remap(this.mappings);
+    }
+
+    @Benchmark
+    public AccessTransformSet remapParallel() {
+        return this.set.remap(this.mappings, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public AccessTransformSetRemapper compile() {
+        return AccessTransformSetRemapper.compile(this.mappings);
+    }
+
+    @Benchmark
+    public AccessTransformSet remapCompiled() {
+        return this.remapper.remap(this.set);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.ReflectionInheritanceProvider;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompleteBenchmark {
+
+    private static final InheritanceProvider INHERITANCE =
+            new ReflectionInheritanceProvider(CompleteBenchmark.class.getClassLoader());
+
+    // Parents of java.util.ArrayList that receive synthetic method entries
+    private static final String[] PARENTS = {
+            "java/util/AbstractList",
+            "java/util/AbstractCollection",
+            "java/util/List",
+            "java/util/Collection",
+    };
+    private static final String CHILD = "java/util/ArrayList";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    private AccessTransformSet hierarchy;
+
+    private AccessTransformSet target;
+
+    @Setup
+    public void setup() {
+        // Mostly methods that are not overridden, plus some that are
+        this.hierarchy = AccessTransformSet.create();
+        for (int i = 0; i < this.entries; i++) {
+            this.hierarchy.getOrCreateClass(PARENTS[i % PARENTS.length])
+                    .mergeMethod(MethodSignature.of("m" + i, "()V"), AccessTransform.PUBLIC);
+        }
+        for (String parent : PARENTS) {
+            AccessTransformSet.Class parentSet = this.hierarchy.getOrCreateClass(parent);
+            parentSet.mergeMethod(MethodSignature.of("size", "()I"), AccessTransform.PUBLIC);
+            parentSet.mergeMethod(MethodSignature.of("add", "(Ljava/lang/Object;)Z"), AccessTransform.PUBLIC);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        this.target = SyntheticAccessTransforms.copy(this.hierarchy);
+    }
+
+    @Benchmark
+    public AccessTransformSet complete() {
+        this.target.getOrCreateClass(CHILD).complete(INHERITANCE);
+        return this.target;
+    }
+
+    @Benchmark
+    public AccessTransformSet completeAll() {
+        this.target.getOrCreateClass(CHILD);
+        this.target.completeAll(INHERITANCE);
+        return this.target;
+    }
+
+}
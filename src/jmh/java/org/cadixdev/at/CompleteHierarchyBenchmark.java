@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.ReflectionInheritanceProvider;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Completes every public class in java.* of the running JDK
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompleteHierarchyBenchmark {
+
+    private static final InheritanceProvider INHERITANCE =
+            new ReflectionInheritanceProvider(CompleteHierarchyBenchmark.class.getClassLoader());
+
+    private AccessTransformSet hierarchy;
+
+    private AccessTransformSet target;
+
+    @Setup
+    public void setup() throws IOException {
+        // Every class gets an entry, abstract classes and interfaces also get one for each of their methods
+        this.hierarchy = AccessTransformSet.create();
+        for (String name : listClasses()) {
+            Class<?> type;
+            try {
+                type = Class.forName(name.replace('/', '.'), false, ClassLoader.getSystemClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            if (!Modifier.isPublic(type.getModifiers())) {
+                continue;
+            }
+
+            AccessTransformSet.Class classSet = this.hierarchy.getOrCreateClass(name);
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                for (Method method : type.getDeclaredMethods()) {
+                    classSet.mergeMethod(MethodSignature.of(method.getName(), descriptor(method)), AccessTransform.PUBLIC);
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        this.target = SyntheticAccessTransforms.copy(this.hierarchy);
+    }
+
+    // Baseline: completing each class on its own, as before completeAll existed
+    @Benchmark
+    public AccessTransformSet complete() {
+        for (AccessTransformSet.Class classSet : new ArrayList<>(this.target.getClasses().values())) {
+            classSet.complete(INHERITANCE);
+        }
+        return this.target;
+    }
+
+    @Benchmark
+    public AccessTransformSet completeAll() {
+        this.target.completeAll(INHERITANCE);
+        return this.target;
+    }
+
+    @Benchmark
+    public AccessTransformSet completeAllParallel() {
+        this.target.completeAll(INHERITANCE, ForkJoinPool.commonPool());
+        return this.target;
+    }
+
+    private static List<String> listClasses() throws IOException {
+        String bootClassPath = System.getProperty("sun.boot.class.path");
+        if (bootClassPath == null) {
+            // Java 9+
+            FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+            return listClasses(jrt.getPath("modules", "java.base"));
+        }
+
+        for (String entry : bootClassPath.split(System.getProperty("path.separator"))) {
+            if (entry.endsWith("rt.jar")) {
+                try (FileSystem jar = FileSystems.newFileSystem(Paths.get(entry), (ClassLoader) null)) {
+                    return listClasses(jar.getPath("/"));
+                }
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<String> listClasses(Path root) throws IOException {
+        try (Stream<Path> stream = Files.walk(root.resolve("java"))) {
+            return stream
+                    .map(path -> root.relativize(path).toString())
+                    .filter(path -> path.endsWith(".class") && !path.equals("module-info.class"))
+                    .map(path -> path.substring(0, path.length() - ".class".length()))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static String descriptor(Method method) {
+        StringBuilder builder = new StringBuilder().append('(');
+        for (Class<?> parameter : method.getParameterTypes()) {
+            appendDescriptor(builder, parameter);
+        }
+        appendDescriptor(builder.append(')'), method.getReturnType());
+        return builder.toString();
+    }
+
+    private static void appendDescriptor(StringBuilder builder, Class<?> type) {
+        while (type.isArray()) {
+            builder.append('[');
+            type = type.getComponentType();
+        }
+
+        if (!type.isPrimitive()) {
+            builder.append('L').append(type.getName().replace('.', '/')).append(';');
+        } else if (type == int.class) {
+            builder.append('I');
+        } else if (type == long.class) {
+            builder.append('J');
+        } else if (type == boolean.class) {
+            builder.append('Z');
+        } else if (type == byte.class) {
+            builder.append('B');
+        } else if (type == char.class) {
+            builder.append('C');
+        } else if (type == short.class) {
+            builder.append('S');
+        } else if (type == float.class) {
+            builder.append('F');
+        } else if (type == double.class) {
+            builder.append('D');
+        } else {
+            builder.append('V');
+        }
+    }
+
+}
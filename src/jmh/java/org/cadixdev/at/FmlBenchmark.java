@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.at.io.AccessTransformFormats;
+import org.cadixdev.at.io.ByteAccessTransformFormats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FmlBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int entries;
+
+    private AccessTransformSet set;
+    private AccessTransformSet sortedSet;
+    private String text;
+    private Path path;
+    private Path binaryPath;
+    private String className;
+
+    @Setup
+    public void setup() throws IOException {
+        this.set = SyntheticAccessTransforms.create(this.entries);
+        this.sortedSet = AccessTransformSet.createSorted();
+        this.sortedSet.merge(this.set);
+
+        StringWriter writer = new StringWriter();
+        AccessTransformFormats.FML.write(writer, this.set);
+        this.text = writer.toString();
+
+        this.className = this.set.getClasses().keySet().iterator().next();
+
+        this.path = Files.createTempFile("at-benchmark", ".cfg");
+        Files.write(this.path, this.text.getBytes(StandardCharsets.UTF_8));
+
+        // For comparison with the binary cache format
+        this.binaryPath = Files.createTempFile("at-benchmark", ".bin");
+        ByteAccessTransformFormats.BINARY.write(this.binaryPath, this.set);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(this.path);
+        Files.delete(this.binaryPath);
+    }
+
+    @Benchmark
+    public AccessTransformSet readReader() throws IOException {
+        return AccessTransformFormats.FML.read(new StringReader(this.text));
+    }
+
+    @Benchmark
+    public AccessTransformSet readPath() throws IOException {
+        return AccessTransformFormats.FML.read(this.path);
+    }
+
+    @Benchmark
+    public AccessTransformSet readLazy() throws IOException {
+        return AccessTransformFormats.FML.readLazy(this.path);
+    }
+
+    // Startup cost when only a single class is used
+    @Benchmark
+    public Optional<AccessTransformSet.Class> readLazyGetClass() throws IOException {
+        return AccessTransformFormats.FML.readLazy(this.path).getClass(this.className);
+    }
+
+    @Benchmark
+    public AccessTransformSet readBinary() throws IOException {
+        return ByteAccessTransformFormats.BINARY.read(this.binaryPath);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        AccessTransformFormats.FML.write(NullWriter.INSTANCE, this.set);
+    }
+
+    @Benchmark
+    public void writeSorted() throws IOException {
+        AccessTransformFormats.FML_SORTED.write(NullWriter.INSTANCE, this.set);
+    }
+
+    // Same output, streamed from a set that keeps its entries sorted
+    @Benchmark
+    public void writeSortedPresorted() throws IOException {
+        AccessTransformFormats.FML_SORTED.write(NullWriter.INSTANCE, this.sortedSet);
+    }
+
+    private static final class NullWriter extends Writer {
+
+        static final NullWriter INSTANCE = new NullWriter();
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Looks up every class (by its binary name with '.') and one method of each class, like a class loading hook
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupBenchmark {
+
+    @Param({"10000", "100000"})
+    public int entries;
+
+    private AccessTransformSet set;
+    private AccessTransformSet frozen;
+
+    private String[] names;
+    private String[] paths;
+    private String[] internalNames;
+    private AccessTransformSet.Class[] classSets;
+    private String[] missing;
+    private ClassNameFilter filter;
+    private MethodSignature method;
+    private String methodDescriptor;
+
+    @Setup
+    public void setup() {
+        this.set = SyntheticAccessTransforms.create(this.entries);
+        this.frozen = this.set.freeze();
+
+        this.names = this.set.getClasses().keySet().stream()
+                .map(name -> name.replace('/', '.'))
+                .toArray(String[]::new);
+        this.paths = this.set.getClasses().keySet().stream()
+                .map(name -> name + ".class")
+                .toArray(String[]::new);
+        this.internalNames = this.set.getClasses().keySet().toArray(new String[0]);
+        this.classSets = this.set.getClasses().values().toArray(new AccessTransformSet.Class[0]);
+        this.missing = Arrays.stream(this.names)
+                .map(name -> name + "Missing")
+                .toArray(String[]::new);
+        this.filter = this.set.createClassNameFilter();
+        this.method = this.set.getClasses().values().iterator().next().getMethods().keySet().iterator().next();
+        this.methodDescriptor = this.method.getDescriptor().toString();
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        lookup(this.set, blackhole);
+    }
+
+    @Benchmark
+    public void lookupFrozen(Blackhole blackhole) {
+        lookup(this.frozen, blackhole);
+    }
+
+    // Looks up class file paths (e.g. from jar entries) without creating a new string
+    @Benchmark
+    public void lookupPath(Blackhole blackhole) {
+        for (String path : this.paths) {
+            this.set.getClass(path, 0, path.length() - ".class".length())
+                    .ifPresent(classSet -> blackhole.consume(classSet.getMethod(this.method)));
+        }
+    }
+
+    // Internal names and descriptor strings, as read from class files
+    @Benchmark
+    public void effectiveMethodAccess(Blackhole blackhole) {
+        effectiveMethodAccess(this.set, blackhole);
+    }
+
+    @Benchmark
+    public void effectiveMethodAccessFrozen(Blackhole blackhole) {
+        effectiveMethodAccess(this.frozen, blackhole);
+    }
+
+    // Most classes loaded at runtime have no transforms
+    @Benchmark
+    public void lookupMissing(Blackhole blackhole) {
+        for (String name : this.missing) {
+            blackhole.consume(this.set.getClass(name));
+        }
+    }
+
+    @Benchmark
+    public void filterMissing(Blackhole blackhole) {
+        for (String name : this.missing) {
+            blackhole.consume(this.filter.mightContain(name));
+        }
+    }
+
+    // What a bytecode visitor had to do before: parse the descriptor of every method
+    @Benchmark
+    public void methodBySignature(Blackhole blackhole) {
+        for (AccessTransformSet.Class classSet : this.classSets) {
+            blackhole.consume(classSet.getMethod(MethodSignature.of(this.method.getName(), this.methodDescriptor)));
+        }
+    }
+
+    @Benchmark
+    public void methodByDescriptor(Blackhole blackhole) {
+        for (AccessTransformSet.Class classSet : this.classSets) {
+            blackhole.consume(classSet.getMethod(this.method.getName(), this.methodDescriptor));
+        }
+    }
+
+    private void effectiveMethodAccess(AccessTransformSet set, Blackhole blackhole) {
+        for (String name : this.internalNames) {
+            blackhole.consume(set.effectiveMethodAccess(name, this.method.getName(), this.methodDescriptor, 0));
+        }
+    }
+
+    private void lookup(AccessTransformSet set, Blackhole blackhole) {
+        for (String name : this.names) {
+            set.getClass(name).ifPresent(classSet -> blackhole.consume(classSet.getMethod(this.method)));
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+
+final class SyntheticAccessTransforms {
+
+    private static final int MEMBERS_PER_CLASS = 10;
+    private static final int CLASSES_PER_PACKAGE = 100;
+
+    private static final AccessTransform[] TRANSFORMS = {
+            AccessTransform.PUBLIC,
+            AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE),
+            AccessTransform.of(AccessChange.PROTECTED),
+            AccessTransform.of(ModifierChange.REMOVE),
+    };
+
+    static String className(int index) {
+        return "net/example/p" + (index / CLASSES_PER_PACKAGE) + "/C" + index;
+    }
+
+    // One class entry, 4 fields and 5 methods per class
+    static AccessTransformSet create(int entries) {
+        return create(AccessTransformSet.create(), entries);
+    }
+
+    static AccessTransformSet create(AccessTransformSet set, int entries) {
+        AccessTransformSet.Class classSet = null;
+        for (int i = 0; i < entries; i++) {
+            int classIndex = i / MEMBERS_PER_CLASS;
+            int member = i % MEMBERS_PER_CLASS;
+            AccessTransform transform = TRANSFORMS[i % TRANSFORMS.length];
+
+            if (member == 0) {
+                classSet = set.getOrCreateClass(className(classIndex));
+                classSet.merge(transform);
+            } else if (member < 5) {
+                classSet.mergeField("f" + member, transform);
+            } else {
+                String descriptor = "(L" + className(classIndex + 1) + ";I)V";
+                classSet.mergeMethod(MethodSignature.of("m" + member, descriptor), transform);
+            }
+        }
+
+        return set;
+    }
+
+    // Maps every class and field, but only every other method
+    static MappingSet createMappings(int entries) {
+        MappingSet mappings = MappingSet.create();
+
+        int classes = (entries + MEMBERS_PER_CLASS - 1) / MEMBERS_PER_CLASS;
+        for (int i = 0; i < classes; i++) {
+            ClassMapping<?, ?> mapping = mappings.getOrCreateTopLevelClassMapping(className(i))
+                    .setDeobfuscatedName("net/example/mapped/p" + (i / CLASSES_PER_PACKAGE) + "/Mapped" + i);
+            for (int member = 1; member < 5; member++) {
+                mapping.getOrCreateFieldMapping("f" + member).setDeobfuscatedName("field" + member);
+            }
+            for (int member = 5; member < MEMBERS_PER_CLASS; member += 2) {
+                mapping.getOrCreateMethodMapping("m" + member, "(L" + className(i + 1) + ";I)V")
+                        .setDeobfuscatedName("method" + member);
+            }
+        }
+
+        return mappings;
+    }
+
+    static AccessTransformSet copy(AccessTransformSet set) {
+        AccessTransformSet copy = AccessTransformSet.create();
+        copy.merge(set);
+        return copy;
+    }
+
+    private SyntheticAccessTransforms() {
+    }
+
+}
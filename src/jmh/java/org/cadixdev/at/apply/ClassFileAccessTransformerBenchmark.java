@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.apply;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+// Transforms some JDK classes, half of them with access transforms for all members
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassFileAccessTransformerBenchmark {
+
+    private static final String[] CLASSES = {
+            "java/lang/String",
+            "java/lang/Thread",
+            "java/util/ArrayList",
+            "java/util/HashMap",
+            "java/util/concurrent/ConcurrentHashMap",
+            "java/util/regex/Pattern",
+            "java/io/ObjectInputStream",
+            "java/lang/invoke/MethodHandles",
+    };
+
+    private byte[][] classes;
+    private byte[][] copies;
+
+    private ClassFileAccessTransformer transformer;
+
+    @Setup
+    public void setup() throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        this.classes = new byte[CLASSES.length][];
+        this.copies = new byte[CLASSES.length][];
+        for (int i = 0; i < CLASSES.length; i++) {
+            this.classes[i] = read(CLASSES[i]);
+            this.copies[i] = new byte[this.classes[i].length];
+
+            if (i % 2 == 0) {
+                AccessTransformSet.Class classSet = set.getOrCreateClass(CLASSES[i]);
+                classSet.merge(AccessTransform.PUBLIC);
+                classSet.mergeAllFields(AccessTransform.PUBLIC);
+                classSet.mergeAllMethods(AccessTransform.PUBLIC);
+            }
+        }
+
+        this.transformer = new ClassFileAccessTransformer(set);
+    }
+
+    @Benchmark
+    public void transform(Blackhole blackhole) {
+        for (int i = 0; i < this.classes.length; i++) {
+            System.arraycopy(this.classes[i], 0, this.copies[i], 0, this.classes[i].length);
+            blackhole.consume(this.transformer.transform(this.copies[i]));
+        }
+    }
+
+    private static byte[] read(String name) throws IOException {
+        try (InputStream in = ClassLoader.getSystemResourceAsStream(name + ".class")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+}
@@ -43,6 +43,26 @@ public int getModifier() {
         return modifier;
     }
 
+    // Only changes the access modifier of the flags if the result is more visible
+    public int apply(int access) {
+        if (this == NONE || compareTo(of(access)) <= 0) {
+            return access;
+        }
+        return (access & ~(Modifier.PUBLIC | Modifier.PROTECTED | Modifier.PRIVATE)) | this.modifier;
+    }
+
+    public static AccessChange of(int access) {
+        if ((access & Modifier.PUBLIC) != 0) {
+            return PUBLIC;
+        } else if ((access & Modifier.PROTECTED) != 0) {
+            return PROTECTED;
+        } else if ((access & Modifier.PRIVATE) != 0) {
+            return PRIVATE;
+        } else {
+            return PACKAGE_PRIVATE;
+        }
+    }
+
     public AccessChange merge(AccessChange other) {
         if (this == other) {
             return this;
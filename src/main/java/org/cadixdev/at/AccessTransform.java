@@ -24,20 +24,46 @@
 
 package org.cadixdev.at;
 
+import java.lang.reflect.Modifier;
 import java.util.Objects;
 import java.util.StringJoiner;
 
 public final class AccessTransform {
 
-    public static final AccessTransform EMPTY = new AccessTransform(AccessChange.NONE, ModifierChange.NONE);
+    private static final AccessChange[] ACCESS_CHANGES = AccessChange.values();
+    private static final ModifierChange[] FINAL_CHANGES = ModifierChange.values();
+
+    // All possible transforms are created upfront, so instances can be compared by identity
+    private static final AccessTransform[] VALUES = new AccessTransform[ACCESS_CHANGES.length * FINAL_CHANGES.length];
+    private static final AccessTransform[] MERGED = new AccessTransform[VALUES.length * VALUES.length];
+
+    static {
+        for (AccessChange accessChange : ACCESS_CHANGES) {
+            for (ModifierChange finalChange : FINAL_CHANGES) {
+                int index = index(accessChange, finalChange);
+                VALUES[index] = new AccessTransform(accessChange, finalChange, index);
+            }
+        }
+
+        for (AccessTransform a : VALUES) {
+            for (AccessTransform b : VALUES) {
+                MERGED[a.index * VALUES.length + b.index] =
+                        VALUES[index(a.accessChange.merge(b.accessChange), a.finalChange.merge(b.finalChange))];
+            }
+        }
+    }
+
+    public static final AccessTransform EMPTY = of(AccessChange.NONE, ModifierChange.NONE);
     public static final AccessTransform PUBLIC = of(AccessChange.PUBLIC);
 
     private final AccessChange accessChange;
     private final ModifierChange finalChange;
+    private final int index;
 
-    private AccessTransform(AccessChange accessChange, ModifierChange finalChange) {
-        this.accessChange = Objects.requireNonNull(accessChange, "accessChange");
-        this.finalChange = Objects.requireNonNull(finalChange, "finalChange");
+    private AccessTransform(AccessChange accessChange, ModifierChange finalChange, int index) {
+        this.accessChange = accessChange;
+        this.finalChange = finalChange;
+        this.index = index;
     }
 
     public boolean isEmpty() {
@@ -52,32 +78,24 @@ public ModifierChange getFinal() {
         return this.finalChange;
     }
 
+    // Applies the transform to the access flags of a class or member (see AccessChange.apply)
+    public int apply(int access) {
+        return this.finalChange.apply(this.accessChange.apply(access), Modifier.FINAL);
+    }
+
     public AccessTransform merge(AccessTransform other) {
         Objects.requireNonNull(other, "other");
-        if (isEmpty()) {
-            return other;
-        } else if (other.isEmpty()) {
-            return this;
-        }
-        return of(getAccess().merge(other.getAccess()), getFinal().merge(other.getFinal()));
+        return MERGED[this.index * VALUES.length + other.index];
     }
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof AccessTransform)) {
-            return false;
-        }
-
-        AccessTransform other = (AccessTransform) o;
-        return getAccess() == other.getAccess() && getFinal() == other.getFinal();
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(accessChange, finalChange);
+        return this.index;
     }
 
     @Override
@@ -105,10 +123,13 @@ public static AccessTransform of(ModifierChange finalChange) {
     }
 
     public static AccessTransform of(AccessChange accessChange, ModifierChange finalChange) {
-        if (accessChange == AccessChange.NONE && finalChange == ModifierChange.NONE) {
-            return AccessTransform.EMPTY;
-        }
-        return new AccessTransform(accessChange, finalChange);
+        Objects.requireNonNull(accessChange, "accessChange");
+        Objects.requireNonNull(finalChange, "finalChange");
+        return VALUES[index(accessChange, finalChange)];
+    }
+
+    private static int index(AccessChange accessChange, ModifierChange finalChange) {
+        return accessChange.ordinal() * FINAL_CHANGES.length + finalChange.ordinal();
     }
 
 }
@@ -0,0 +1,256 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * A stable 128-bit fingerprint of the contents of an AccessTransformSet.
+ *
+ * The fingerprint is the sum of a hash (MurmurHash3 x64 128) of each
+ * non-empty entry, so it does not depend on iteration order or the set
+ * implementation and can be updated incrementally: when an entry changes,
+ * subtract the fingerprint of the old entry and add the one of the new entry.
+ */
+public final class AccessTransformFingerprint {
+
+    public static final AccessTransformFingerprint EMPTY = new AccessTransformFingerprint(0, 0);
+
+    private static final byte CLASS = 1;
+    private static final byte ALL_FIELDS = 2;
+    private static final byte ALL_METHODS = 3;
+    private static final byte FIELD = 4;
+    private static final byte METHOD = 5;
+
+    private final long high;
+    private final long low;
+
+    private AccessTransformFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public long getMostSignificantBits() {
+        return this.high;
+    }
+
+    public long getLeastSignificantBits() {
+        return this.low;
+    }
+
+    public AccessTransformFingerprint add(AccessTransformFingerprint other) {
+        long low = this.low + other.low;
+        long carry = Long.compareUnsigned(low, this.low) < 0 ? 1 : 0;
+        return new AccessTransformFingerprint(this.high + other.high + carry, low);
+    }
+
+    public AccessTransformFingerprint subtract(AccessTransformFingerprint other) {
+        long low = this.low - other.low;
+        long borrow = Long.compareUnsigned(this.low, other.low) < 0 ? 1 : 0;
+        return new AccessTransformFingerprint(this.high - other.high - borrow, low);
+    }
+
+    public static AccessTransformFingerprint of(AccessTransformSet set) {
+        Objects.requireNonNull(set, "set");
+
+        AccessTransformFingerprint fingerprint = EMPTY;
+        for (AccessTransformSet.Class classSet : set.getClasses().values()) {
+            fingerprint = fingerprint.add(of(classSet));
+        }
+        return fingerprint;
+    }
+
+    public static AccessTransformFingerprint of(AccessTransformSet.Class classSet) {
+        Objects.requireNonNull(classSet, "classSet");
+
+        String className = classSet.getName();
+        AccessTransformFingerprint fingerprint = ofClass(className, classSet.get())
+                .add(ofAllFields(className, classSet.allFields()))
+                .add(ofAllMethods(className, classSet.allMethods()));
+        for (Map.Entry<String, AccessTransform> entry : classSet.getFields().entrySet()) {
+            fingerprint = fingerprint.add(ofField(className, entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<MethodSignature, AccessTransform> entry : classSet.getMethods().entrySet()) {
+            fingerprint = fingerprint.add(ofMethod(className, entry.getKey(), entry.getValue()));
+        }
+        return fingerprint;
+    }
+
+    public static AccessTransformFingerprint ofClass(String className, AccessTransform transform) {
+        return hash(CLASS, className, null, null, transform);
+    }
+
+    public static AccessTransformFingerprint ofAllFields(String className, AccessTransform transform) {
+        return hash(ALL_FIELDS, className, null, null, transform);
+    }
+
+    public static AccessTransformFingerprint ofAllMethods(String className, AccessTransform transform) {
+        return hash(ALL_METHODS, className, null, null, transform);
+    }
+
+    public static AccessTransformFingerprint ofField(String className, String name, AccessTransform transform) {
+        return hash(FIELD, className, Objects.requireNonNull(name, "name"), null, transform);
+    }
+
+    public static AccessTransformFingerprint ofMethod(String className, MethodSignature signature, AccessTransform transform) {
+        Objects.requireNonNull(signature, "signature");
+        return hash(METHOD, className, signature.getName(), signature.getDescriptor().toString(), transform);
+    }
+
+    // Empty transforms don't change the fingerprint
+    private static AccessTransformFingerprint hash(byte kind, String className, String name, String descriptor, AccessTransform transform) {
+        Objects.requireNonNull(className, "className");
+        Objects.requireNonNull(transform, "transform");
+        if (transform.isEmpty()) {
+            return EMPTY;
+        }
+
+        StringBuilder builder = new StringBuilder(className.length() + 32).append(className.replace('.', '/'));
+        if (name != null) {
+            builder.append('\0').append(name);
+        }
+        if (descriptor != null) {
+            builder.append('\0').append(descriptor);
+        }
+        byte[] key = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        byte[] data = new byte[key.length + 3];
+        data[0] = kind;
+        data[1] = (byte) transform.getAccess().ordinal();
+        data[2] = (byte) transform.getFinal().ordinal();
+        System.arraycopy(key, 0, data, 3, key.length);
+        return murmur3(data);
+    }
+
+    private static AccessTransformFingerprint murmur3(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+
+        long h1 = 0;
+        long h2 = 0;
+
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            long b = data[i] & 0xFFL;
+            if (i - tail >= 8) {
+                k2 |= b << ((i - tail - 8) * 8);
+            } else {
+                k1 |= b << ((i - tail) * 8);
+            }
+        }
+        if (k2 != 0) {
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+        }
+        if (k1 != 0) {
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new AccessTransformFingerprint(h1, h2);
+    }
+
+    private static long getLong(byte[] data, int pos) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[pos + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AccessTransformFingerprint)) {
+            return false;
+        }
+
+        AccessTransformFingerprint that = (AccessTransformFingerprint) o;
+        return this.high == that.high && this.low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.high) * 31 + Long.hashCode(this.low);
+    }
+
+    // 32 hexadecimal digits
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", this.high, this.low);
+    }
+
+}
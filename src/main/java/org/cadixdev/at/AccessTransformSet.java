@@ -25,28 +25,86 @@
 package org.cadixdev.at;
 
 import org.cadixdev.at.impl.AccessTransformSetImpl;
+import org.cadixdev.at.impl.CompactAccessTransformSetImpl;
+import org.cadixdev.at.impl.ConcurrentAccessTransformSetImpl;
+import org.cadixdev.at.impl.SortedAccessTransformSetImpl;
 import org.cadixdev.bombe.analysis.InheritanceCompletable;
 import org.cadixdev.bombe.analysis.InheritanceProvider;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.cadixdev.lorenz.MappingSet;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 public interface AccessTransformSet {
 
     Map<String, Class> getClasses();
     Optional<Class> getClass(String name);
+    // Looks up the class name between start and end, which may use '.' or '/' as separator
+    default Optional<Class> getClass(CharSequence name, int start, int end) {
+        return getClass(name.subSequence(start, end).toString());
+    }
     Class getOrCreateClass(String name);
     Optional<Class> removeClass(String name);
 
+    // Returns a filter of the classes that currently have transforms. Later changes to the set are not reflected.
+    default ClassNameFilter createClassNameFilter() {
+        return (name, start, end) -> true;
+    }
+
+    // Return the access flags of a member after applying its transform (or the one for all fields/methods)
+    // to the current flags. The owner is an internal class name. Neither method allocates, so they can be
+    // used for every member in a bytecode transformer.
+    default int effectiveFieldAccess(String owner, String name, int access) {
+        return getClass(owner).map(classSet -> classSet.getField(name).apply(access)).orElse(access);
+    }
+    default int effectiveMethodAccess(String owner, String name, String descriptor, int access) {
+        return getClass(owner).map(classSet -> classSet.getMethod(name, descriptor).apply(access)).orElse(access);
+    }
+
     AccessTransformSet remap(MappingSet mappings);
+    default AccessTransformSet remap(MappingSet mappings, ForkJoinPool pool) {
+        return remap(mappings);
+    }
     void merge(AccessTransformSet other);
 
+    default void completeAll(InheritanceProvider provider) {
+        // Completing a class may add classes for its parents
+        for (Class classSet : new ArrayList<>(getClasses().values())) {
+            classSet.complete(provider);
+        }
+    }
+    default void completeAll(InheritanceProvider provider, ForkJoinPool pool) {
+        completeAll(provider);
+    }
+
+    // Returns an immutable copy that can be shared between threads
+    default AccessTransformSet freeze() {
+        AccessTransformSet copy = create();
+        copy.merge(this);
+        return copy.freeze();
+    }
+
     static AccessTransformSet create() {
         return new AccessTransformSetImpl();
     }
 
+    // Uses less memory for large sets, but is slower to modify
+    static AccessTransformSet createCompact() {
+        return new CompactAccessTransformSetImpl();
+    }
+
+    static AccessTransformSet createConcurrent() {
+        return new ConcurrentAccessTransformSetImpl();
+    }
+
+    // Keeps its entries sorted, so FML_SORTED writes it without sorting, but is slower to modify
+    static AccessTransformSet createSorted() {
+        return new SortedAccessTransformSetImpl();
+    }
+
     interface Class extends InheritanceCompletable {
         AccessTransformSet getParent();
         String getName();
@@ -72,9 +130,21 @@ interface Class extends InheritanceCompletable {
         AccessTransform getMethod(MethodSignature signature);
         AccessTransform mergeMethod(MethodSignature signature, AccessTransform transform);
         AccessTransform replaceMethod(MethodSignature signature, AccessTransform transform);
+        // Same as above, but keyed by the descriptor string (e.g. from a class file), which is not parsed
+        default AccessTransform getMethod(String name, String descriptor) {
+            return getMethod(MethodSignature.of(name, descriptor));
+        }
+        default AccessTransform mergeMethod(String name, String descriptor, AccessTransform transform) {
+            return mergeMethod(MethodSignature.of(name, descriptor), transform);
+        }
 
         void merge(Class other);
 
+        // Marks the class as complete without resolving its inheritance, e.g. if it was completed before.
+        // This only saves work, so implementations that don't track completion may ignore it.
+        default void markComplete() {
+        }
+
         @Override
         default Optional<InheritanceProvider.ClassInfo> provideInheritance(InheritanceProvider provider, Object context) {
             return provider.provide(getName(), context);
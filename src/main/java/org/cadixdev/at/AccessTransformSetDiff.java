@@ -0,0 +1,221 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/*
+ * The classes, fields and methods with a different effective access transform
+ * (as returned by AccessTransformSet.Class.get/getField/getMethod) in two sets.
+ *
+ * A changed class transform also changes the InnerClasses attribute of all
+ * classes that reference the (nested) class.
+ */
+public final class AccessTransformSetDiff {
+
+    private final Map<String, ClassDiff> classes;
+
+    private AccessTransformSetDiff(Map<String, ClassDiff> classes) {
+        this.classes = classes;
+    }
+
+    public static AccessTransformSetDiff compute(AccessTransformSet from, AccessTransformSet to) {
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+
+        Map<String, ClassDiff> classes = new HashMap<>();
+        from.getClasses().forEach((name, fromClass) -> {
+            ClassDiff diff = ClassDiff.compute(name, fromClass, to.getClasses().get(name));
+            if (diff != null) {
+                classes.put(name, diff);
+            }
+        });
+        to.getClasses().forEach((name, toClass) -> {
+            if (!from.getClasses().containsKey(name)) {
+                ClassDiff diff = ClassDiff.compute(name, null, toClass);
+                if (diff != null) {
+                    classes.put(name, diff);
+                }
+            }
+        });
+        return new AccessTransformSetDiff(Collections.unmodifiableMap(classes));
+    }
+
+    public boolean isEmpty() {
+        return this.classes.isEmpty();
+    }
+
+    // Only contains classes with at least one change
+    public Map<String, ClassDiff> getClasses() {
+        return this.classes;
+    }
+
+    @Override
+    public String toString() {
+        return "AccessTransformSetDiff{" + this.classes.values() + '}';
+    }
+
+    public static final class ClassDiff {
+
+        private final String name;
+        private final boolean classChanged;
+        private final boolean allFieldsChanged;
+        private final boolean allMethodsChanged;
+        private final Set<String> fields;
+        private final Set<MethodSignature> methods;
+
+        private ClassDiff(String name, boolean classChanged, boolean allFieldsChanged, boolean allMethodsChanged,
+                Set<String> fields, Set<MethodSignature> methods) {
+            this.name = name;
+            this.classChanged = classChanged;
+            this.allFieldsChanged = allFieldsChanged;
+            this.allMethodsChanged = allMethodsChanged;
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+        // Either class might be null if it doesn't exist in the set, returns null if nothing changed
+        private static ClassDiff compute(String name, AccessTransformSet.Class from, AccessTransformSet.Class to) {
+            boolean classChanged = get(from) != get(to);
+            boolean allFieldsChanged = allFields(from) != allFields(to);
+            boolean allMethodsChanged = allMethods(from) != allMethods(to);
+
+            Set<String> fields = null;
+            for (AccessTransformSet.Class classSet : new AccessTransformSet.Class[] { from, to }) {
+                if (classSet == null) {
+                    continue;
+                }
+                for (String field : classSet.getFields().keySet()) {
+                    if (getField(from, field) != getField(to, field)) {
+                        if (fields == null) {
+                            fields = new HashSet<>();
+                        }
+                        fields.add(field);
+                    }
+                }
+            }
+
+            Set<MethodSignature> methods = null;
+            for (AccessTransformSet.Class classSet : new AccessTransformSet.Class[] { from, to }) {
+                if (classSet == null) {
+                    continue;
+                }
+                for (MethodSignature method : classSet.getMethods().keySet()) {
+                    if (getMethod(from, method) != getMethod(to, method)) {
+                        if (methods == null) {
+                            methods = new HashSet<>();
+                        }
+                        methods.add(method);
+                    }
+                }
+            }
+
+            if (!classChanged && !allFieldsChanged && !allMethodsChanged && fields == null && methods == null) {
+                return null;
+            }
+            return new ClassDiff(name, classChanged, allFieldsChanged, allMethodsChanged,
+                    fields != null ? Collections.unmodifiableSet(fields) : Collections.emptySet(),
+                    methods != null ? Collections.unmodifiableSet(methods) : Collections.emptySet());
+        }
+
+        private static AccessTransform getField(AccessTransformSet.Class classSet, String field) {
+            return classSet != null ? classSet.getField(field) : AccessTransform.EMPTY;
+        }
+
+        private static AccessTransform getMethod(AccessTransformSet.Class classSet, MethodSignature method) {
+            return classSet != null ? classSet.getMethod(method) : AccessTransform.EMPTY;
+        }
+
+        private static AccessTransform get(AccessTransformSet.Class classSet) {
+            return classSet != null ? classSet.get() : AccessTransform.EMPTY;
+        }
+
+        private static AccessTransform allFields(AccessTransformSet.Class classSet) {
+            return classSet != null ? classSet.allFields() : AccessTransform.EMPTY;
+        }
+
+        private static AccessTransform allMethods(AccessTransformSet.Class classSet) {
+            return classSet != null ? classSet.allMethods() : AccessTransform.EMPTY;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public boolean isClassChanged() {
+            return this.classChanged;
+        }
+
+        // If true, all fields without their own entry in either set might have changed
+        public boolean isAllFieldsChanged() {
+            return this.allFieldsChanged;
+        }
+
+        // If true, all methods without their own entry in either set might have changed
+        public boolean isAllMethodsChanged() {
+            return this.allMethodsChanged;
+        }
+
+        public Set<String> getFields() {
+            return this.fields;
+        }
+
+        public Set<MethodSignature> getMethods() {
+            return this.methods;
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner joiner = new StringJoiner(", ", "ClassDiff{", "}");
+            joiner.add("name=" + this.name);
+            if (this.classChanged) {
+                joiner.add("class");
+            }
+            if (this.allFieldsChanged) {
+                joiner.add("allFields");
+            }
+            if (this.allMethodsChanged) {
+                joiner.add("allMethods");
+            }
+            if (!this.fields.isEmpty()) {
+                joiner.add("fields=" + this.fields);
+            }
+            if (!this.methods.isEmpty()) {
+                joiner.add("methods=" + this.methods);
+            }
+            return joiner.toString();
+        }
+
+    }
+
+}
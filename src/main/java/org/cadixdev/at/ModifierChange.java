@@ -29,6 +29,19 @@ public enum ModifierChange {
     REMOVE,
     ADD;
 
+    public int apply(int access, int modifier) {
+        switch (this) {
+            case NONE:
+                return access;
+            case REMOVE:
+                return access & ~modifier;
+            case ADD:
+                return access | modifier;
+            default:
+                throw new AssertionError(this);
+        }
+    }
+
     public ModifierChange merge(ModifierChange other) {
         switch (other) {
             case NONE:
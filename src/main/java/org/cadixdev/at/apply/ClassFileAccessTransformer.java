@@ -0,0 +1,470 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.apply;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+ * Applies an AccessTransformSet directly to the access flags in class files.
+ *
+ * Access flags have a fixed size, so the class file is patched in place
+ * instead of being parsed and written again. Access is only ever widened.
+ * Calls to methods of the class that are no longer private are changed from
+ * INVOKESPECIAL to INVOKEVIRTUAL (and method handles from REF_invokeSpecial
+ * to REF_invokeVirtual), so that overrides in subclasses are called. Both
+ * have the same size, so they are patched in place as well.
+ */
+public final class ClassFileAccessTransformer {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final int REF_INVOKE_VIRTUAL = 5;
+    private static final int REF_INVOKE_SPECIAL = 7;
+
+    private static final int INVOKEVIRTUAL = 0xB6;
+    private static final int INVOKESPECIAL = 0xB7;
+
+    private static final byte[] INNER_CLASSES = "InnerClasses".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CODE = "Code".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLASS_INITIALIZER = "<clinit>".getBytes(StandardCharsets.US_ASCII);
+    private static final String CONSTRUCTOR = "<init>";
+
+    private final AccessTransformSet set;
+
+    public ClassFileAccessTransformer(AccessTransformSet set) {
+        this.set = Objects.requireNonNull(set, "set");
+    }
+
+    public AccessTransformSet getSet() {
+        return this.set;
+    }
+
+    // Returns true if the class file was changed
+    public boolean transform(byte[] classFile) {
+        return transform(classFile, 0, classFile.length);
+    }
+
+    public boolean transform(byte[] b, int offset, int length) {
+        Objects.requireNonNull(b, "b");
+        if (offset < 0 || length < 0 || offset + length > b.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array length " + b.length);
+        }
+
+        return new ClassFile(b, offset, offset + length).transform();
+    }
+
+    // Class files can't be private or protected, protected nested classes are public in the class file
+    static int toClassFileAccess(int access) {
+        if ((access & Modifier.PROTECTED) != 0) {
+            access = (access & ~Modifier.PROTECTED) | Modifier.PUBLIC;
+        }
+        return access & ~Modifier.PRIVATE;
+    }
+
+    private final class ClassFile {
+
+        private final byte[] b;
+        private final int end;
+
+        // Offsets of the constant pool entries (pointing to the tag)
+        private int[] constants;
+
+        // Offset of the access flags of the class, after the constant pool
+        private final int access;
+
+        ClassFile(byte[] b, int start, int end) {
+            this.b = b;
+            this.end = end;
+
+            if (end - start < 10 || readInt(start) != MAGIC) {
+                throw new IllegalArgumentException("Not a class file");
+            }
+            this.access = readConstantPool(start + 8);
+        }
+
+        private int readConstantPool(int pos) {
+            int count = readUnsignedShort(pos);
+            this.constants = new int[count];
+            pos += 2;
+
+            for (int i = 1; i < count; i++) {
+                this.constants[i] = pos;
+                switch (readByte(pos)) {
+                    case CONSTANT_UTF8:
+                        pos += 3 + readUnsignedShort(pos + 1);
+                        break;
+                    case CONSTANT_INTEGER:
+                    case CONSTANT_FLOAT:
+                    case CONSTANT_FIELDREF:
+                    case CONSTANT_METHODREF:
+                    case CONSTANT_INTERFACE_METHODREF:
+                    case CONSTANT_NAME_AND_TYPE:
+                    case CONSTANT_DYNAMIC:
+                    case CONSTANT_INVOKE_DYNAMIC:
+                        pos += 5;
+                        break;
+                    case CONSTANT_LONG:
+                    case CONSTANT_DOUBLE:
+                        // Uses two entries
+                        pos += 9;
+                        i++;
+                        break;
+                    case CONSTANT_CLASS:
+                    case CONSTANT_STRING:
+                    case CONSTANT_METHOD_TYPE:
+                    case CONSTANT_MODULE:
+                    case CONSTANT_PACKAGE:
+                        pos += 3;
+                        break;
+                    case CONSTANT_METHOD_HANDLE:
+                        pos += 4;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown constant pool tag " + this.b[pos] + " at " + pos);
+                }
+            }
+
+            return pos;
+        }
+
+        boolean transform() {
+            int access = this.access;
+            String className = readClass(access + 2);
+            AccessTransformSet.Class classSet = set.getClass(className).orElse(null);
+
+            boolean modified = false;
+            if (classSet != null && !classSet.get().isEmpty()) {
+                int flags = readUnsignedShort(access);
+                modified = patch(access, toClassFileAccess(classSet.get().apply(flags)));
+            }
+
+            // access_flags, this_class, super_class, interfaces
+            int pos = access + 6;
+            pos += 2 + readUnsignedShort(pos) * 2;
+
+            boolean fields = classSet != null && (!classSet.allFields().isEmpty() || !classSet.getFields().isEmpty());
+            int count = readUnsignedShort(pos);
+            pos += 2;
+            for (int i = 0; i < count; i++) {
+                if (fields) {
+                    AccessTransform transform = classSet.getField(readUtf8(readUnsignedShort(pos + 2)));
+                    modified |= patch(pos, transform.apply(readUnsignedShort(pos)));
+                }
+                pos = skipAttributes(pos + 6);
+            }
+
+            boolean methods = classSet != null && (!classSet.allMethods().isEmpty() || !classSet.getMethods().isEmpty());
+            // Name and descriptor of the instance methods that are no longer private
+            Set<String> devirtualized = null;
+            int methodCount = readUnsignedShort(pos);
+            pos += 2;
+            int methodsStart = pos;
+            for (int i = 0; i < methodCount; i++) {
+                int name = readUnsignedShort(pos + 2);
+                if (methods && !utf8Equals(name, CLASS_INITIALIZER)) {
+                    String methodName = readUtf8(name);
+                    String descriptor = readUtf8(readUnsignedShort(pos + 4));
+                    int flags = readUnsignedShort(pos);
+                    // Looked up by descriptor string, so it does not need to be parsed
+                    int transformed = classSet.getMethod(methodName, descriptor).apply(flags);
+                    modified |= patch(pos, transformed);
+
+                    if ((flags & (Modifier.PRIVATE | Modifier.STATIC)) == Modifier.PRIVATE && (transformed & Modifier.PRIVATE) == 0
+                            && !methodName.equals(CONSTRUCTOR)) {
+                        if (devirtualized == null) {
+                            devirtualized = new HashSet<>();
+                        }
+                        devirtualized.add(methodName + descriptor);
+                    }
+                }
+                pos = skipAttributes(pos + 6);
+            }
+
+            if (devirtualized != null) {
+                modified |= devirtualize(className, devirtualized, methodsStart, methodCount);
+            }
+
+            count = readUnsignedShort(pos);
+            pos += 2;
+            for (int i = 0; i < count; i++) {
+                int length = readInt(pos + 2);
+                if (utf8Equals(readUnsignedShort(pos), INNER_CLASSES)) {
+                    modified |= transformInnerClasses(pos + 6);
+                }
+                pos += 6 + length;
+            }
+
+            check(pos, 0);
+            return modified;
+        }
+
+        // Nested classes also have their access flags in the InnerClasses attribute of both the outer and the nested class
+        private boolean transformInnerClasses(int pos) {
+            boolean modified = false;
+
+            int count = readUnsignedShort(pos);
+            pos += 2;
+            for (int i = 0; i < count; i++, pos += 8) {
+                Optional<AccessTransformSet.Class> classSet = set.getClass(readClass(pos));
+                if (classSet.isPresent() && !classSet.get().get().isEmpty()) {
+                    modified |= patch(pos + 6, classSet.get().get().apply(readUnsignedShort(pos + 6)));
+                }
+            }
+            return modified;
+        }
+
+        // Changes calls to the given methods of this class from INVOKESPECIAL to INVOKEVIRTUAL
+        private boolean devirtualize(String className, Set<String> methods, int pos, int methodCount) {
+            boolean modified = false;
+
+            // Method handles, e.g. for method references
+            for (int i = 1; i < this.constants.length; i++) {
+                int constant = this.constants[i];
+                if (constant != 0 && readByte(constant) == CONSTANT_METHOD_HANDLE && readByte(constant + 1) == REF_INVOKE_SPECIAL
+                        && isCalled(className, methods, readUnsignedShort(constant + 2))) {
+                    this.b[constant + 1] = REF_INVOKE_VIRTUAL;
+                    modified = true;
+                }
+            }
+
+            for (int i = 0; i < methodCount; i++) {
+                int count = readUnsignedShort(pos + 6);
+                pos += 8;
+                for (int j = 0; j < count; j++) {
+                    int length = readInt(pos + 2);
+                    if (utf8Equals(readUnsignedShort(pos), CODE)) {
+                        // max_stack, max_locals, code_length
+                        modified |= devirtualizeCode(className, methods, pos + 14, readInt(pos + 10));
+                    }
+                    pos += 6 + length;
+                }
+            }
+            return modified;
+        }
+
+        private boolean devirtualizeCode(String className, Set<String> methods, int start, int length) {
+            check(start, length);
+
+            boolean modified = false;
+            int end = start + length;
+            int pos = start;
+            while (pos < end) {
+                int opcode = this.b[pos] & 0xFF;
+                if (opcode == INVOKESPECIAL && isCalled(className, methods, readUnsignedShort(pos + 1))) {
+                    this.b[pos] = (byte) INVOKEVIRTUAL;
+                    modified = true;
+                }
+                int size = instructionLength(opcode, pos, start);
+                if (size <= 0) {
+                    throw new IllegalArgumentException("Invalid instruction at " + pos);
+                }
+                pos += size;
+            }
+            return modified;
+        }
+
+        // Returns true if the Methodref is one of the given methods of this class
+        private boolean isCalled(String className, Set<String> methods, int index) {
+            int constant = this.constants[index];
+            if (readByte(constant) != CONSTANT_METHODREF || !readUtf8(readUnsignedShort(this.constants[readUnsignedShort(constant + 1)] + 1)).equals(className)) {
+                return false;
+            }
+
+            int nameAndType = this.constants[readUnsignedShort(constant + 3)];
+            return methods.contains(readUtf8(readUnsignedShort(nameAndType + 1)) + readUtf8(readUnsignedShort(nameAndType + 3)));
+        }
+
+        private int instructionLength(int opcode, int pos, int codeStart) {
+            switch (opcode) {
+                case 0x10: // bipush
+                case 0x12: // ldc
+                case 0xA9: // ret
+                case 0xBC: // newarray
+                    return 2;
+                case 0x11: // sipush
+                case 0x13: // ldc_w
+                case 0x14: // ldc2_w
+                case 0x84: // iinc
+                case 0xB2: // getstatic
+                case 0xB3: // putstatic
+                case 0xB4: // getfield
+                case 0xB5: // putfield
+                case 0xB6: // invokevirtual
+                case 0xB7: // invokespecial
+                case 0xB8: // invokestatic
+                case 0xBB: // new
+                case 0xBD: // anewarray
+                case 0xC0: // checkcast
+                case 0xC1: // instanceof
+                case 0xC6: // ifnull
+                case 0xC7: // ifnonnull
+                    return 3;
+                case 0xC5: // multianewarray
+                    return 4;
+                case 0xB9: // invokeinterface
+                case 0xBA: // invokedynamic
+                case 0xC8: // goto_w
+                case 0xC9: // jsr_w
+                    return 5;
+                case 0xC4: // wide
+                    return (readByte(pos + 1) & 0xFF) == 0x84 ? 6 : 4;
+                case 0xAA: { // tableswitch
+                    int operands = pos + 1 + ((4 - (pos + 1 - codeStart) % 4) % 4);
+                    int low = readInt(operands + 4);
+                    int high = readInt(operands + 8);
+                    return operands - pos + 12 + (high - low + 1) * 4;
+                }
+                case 0xAB: { // lookupswitch
+                    int operands = pos + 1 + ((4 - (pos + 1 - codeStart) % 4) % 4);
+                    return operands - pos + 8 + readInt(operands + 4) * 8;
+                }
+                default:
+                    if (opcode >= 0x15 && opcode <= 0x19 || opcode >= 0x36 && opcode <= 0x3A) {
+                        // Loads and stores with a local variable index
+                        return 2;
+                    }
+                    if (opcode >= 0x99 && opcode <= 0xA8) {
+                        // Branches
+                        return 3;
+                    }
+                    if (opcode > 0xC9) {
+                        throw new IllegalArgumentException("Unknown opcode " + opcode + " at " + pos);
+                    }
+                    return 1;
+            }
+        }
+
+        private int skipAttributes(int pos) {
+            int count = readUnsignedShort(pos);
+            pos += 2;
+            for (int i = 0; i < count; i++) {
+                pos += 6 + readInt(pos + 2);
+            }
+            return pos;
+        }
+
+        private boolean patch(int pos, int access) {
+            if (readUnsignedShort(pos) == access) {
+                return false;
+            }
+
+            this.b[pos] = (byte) (access >>> 8);
+            this.b[pos + 1] = (byte) access;
+            return true;
+        }
+
+        private String readClass(int pos) {
+            return readUtf8(readUnsignedShort(this.constants[readUnsignedShort(pos)] + 1));
+        }
+
+        private boolean utf8Equals(int index, byte[] value) {
+            int pos = this.constants[index];
+            if (readUnsignedShort(pos + 1) != value.length) {
+                return false;
+            }
+
+            pos += 3;
+            check(pos, value.length);
+            for (int i = 0; i < value.length; i++) {
+                if (this.b[pos + i] != value[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Decodes the modified UTF-8 used in class files
+        private String readUtf8(int index) {
+            int pos = this.constants[index];
+            int length = readUnsignedShort(pos + 1);
+            pos += 3;
+            int end = pos + length;
+            check(pos, length);
+
+            char[] chars = new char[length];
+            int count = 0;
+            while (pos < end) {
+                int c = this.b[pos++] & 0xFF;
+                if (c < 0x80) {
+                    chars[count++] = (char) c;
+                } else if (c < 0xE0) {
+                    chars[count++] = (char) (((c & 0x1F) << 6) | (this.b[pos++] & 0x3F));
+                } else {
+                    chars[count++] = (char) (((c & 0x0F) << 12) | ((this.b[pos++] & 0x3F) << 6) | (this.b[pos++] & 0x3F));
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private void check(int pos, int length) {
+            if (pos < 0 || pos + length > this.end) {
+                throw new IllegalArgumentException("Truncated class file");
+            }
+        }
+
+        private int readByte(int pos) {
+            check(pos, 1);
+            return this.b[pos];
+        }
+
+        private int readUnsignedShort(int pos) {
+            check(pos, 2);
+            return ((this.b[pos] & 0xFF) << 8) | (this.b[pos + 1] & 0xFF);
+        }
+
+        private int readInt(int pos) {
+            check(pos, 4);
+            return ((this.b[pos] & 0xFF) << 24) | ((this.b[pos + 1] & 0xFF) << 16) | ((this.b[pos + 2] & 0xFF) << 8) | (this.b[pos + 3] & 0xFF);
+        }
+
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.apply;
+
+import org.cadixdev.at.AccessTransformSet;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+ * Applies an AccessTransformSet to all classes in a jar file.
+ *
+ * Entries are written in the same order as in the input. Entries that are
+ * not transformed are copied without decompressing them, but their local
+ * headers are rewritten with the sizes and without data descriptors, so the
+ * output is not byte for byte identical to the input. The remaining classes
+ * are transformed on the executor, with a limited number of entries in
+ * flight. The output is written to a temporary file next to it first, so it
+ * is left untouched if the transformation fails.
+ *
+ * The access of nested classes is also stored in the InnerClasses attribute
+ * of every class that refers to them, so if the set changes the access of a
+ * nested class, all classes are checked. Otherwise only classes with an
+ * entry in the set are transformed.
+ */
+public final class JarAccessTransformer {
+
+    // Maximum number of entries that are read but not written yet
+    private static final int WINDOW = 256;
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private final ClassFileAccessTransformer transformer;
+    private final Executor executor;
+
+    public JarAccessTransformer(AccessTransformSet set) {
+        this(set, ForkJoinPool.commonPool());
+    }
+
+    public JarAccessTransformer(AccessTransformSet set, Executor executor) {
+        this.transformer = new ClassFileAccessTransformer(set);
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    public Result transform(Path input, Path output) throws IOException {
+        Objects.requireNonNull(input, "input");
+        Objects.requireNonNull(output, "output");
+
+        long start = System.nanoTime();
+        int classes = 0;
+        int transformed = 0;
+
+        boolean nested = hasNestedClassTransforms(this.transformer.getSet());
+        Queue<CompletableFuture<Data>> pending = new ArrayDeque<>();
+        // Write to a temporary file first, so a failed transformation never leaves a partially written output
+        Path temp = Files.createTempFile(output.toAbsolutePath().getParent(), output.getFileName().toString(), ".tmp");
+        try {
+            try (ZipFileReader reader = new ZipFileReader(input);
+                 ZipFileWriter writer = new ZipFileWriter(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                for (ZipFileReader.Entry entry : reader.getEntries()) {
+                    byte[][] data = reader.readData(entry);
+                    Data raw = new Data(entry, data[0], entry.getMethod(), entry.getCrc(), entry.getSize(), data[1], false);
+
+                    String name = entry.getName();
+                    if (name.endsWith(CLASS_EXTENSION)) {
+                        classes++;
+                    }
+
+                    if (isTransformed(entry, nested)) {
+                        pending.add(CompletableFuture.supplyAsync(() -> transform(raw), this.executor));
+                    } else {
+                        pending.add(CompletableFuture.completedFuture(raw));
+                    }
+
+                    if (pending.size() >= WINDOW) {
+                        transformed += write(writer, pending.remove());
+                    }
+                }
+
+                while (!pending.isEmpty()) {
+                    transformed += write(writer, pending.remove());
+                }
+
+                writer.finish(reader.getComment());
+            } finally {
+                pending.forEach(future -> future.cancel(false));
+            }
+
+            try {
+                Files.move(temp, output, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        return new Result(classes, transformed, System.nanoTime() - start);
+    }
+
+    private boolean isTransformed(ZipFileReader.Entry entry, boolean nested) {
+        String name = entry.getName();
+        if (!name.endsWith(CLASS_EXTENSION) || (entry.getFlags() & 1) != 0) {
+            // Not a class or encrypted
+            return false;
+        }
+        if (entry.getMethod() != ZipFileReader.STORED && entry.getMethod() != ZipFileReader.DEFLATED) {
+            return false;
+        }
+        // Classes without InnerClasses entries for transformed classes are written unchanged by the transformer
+        return nested || this.transformer.getSet().getClass(name, 0, name.length() - CLASS_EXTENSION.length()).isPresent();
+    }
+
+    private static boolean hasNestedClassTransforms(AccessTransformSet set) {
+        for (AccessTransformSet.Class classSet : set.getClasses().values()) {
+            if (classSet.getName().indexOf('$') >= 0 && !classSet.get().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int write(ZipFileWriter writer, CompletableFuture<Data> future) throws IOException {
+        Data data;
+        try {
+            data = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while transforming classes", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+
+        writer.write(data.entry, data.extra, data.method, data.crc, data.size, data.data);
+        return data.transformed ? 1 : 0;
+    }
+
+    private Data transform(Data raw) {
+        byte[] bytes = raw.method == ZipFileReader.DEFLATED ? inflate(raw) : raw.data.clone();
+        try {
+            if (!this.transformer.transform(bytes)) {
+                return raw;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new UncheckedIOException(new IOException("Failed to transform " + raw.entry.getName(), e));
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        byte[] data = raw.method == ZipFileReader.DEFLATED ? deflate(bytes) : bytes;
+        return new Data(raw.entry, raw.extra, raw.method, (int) crc.getValue(), bytes.length, data, true);
+    }
+
+    private static byte[] inflate(Data raw) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(raw.data);
+            byte[] bytes = new byte[(int) raw.size];
+            int length = 0;
+            while (length < bytes.length) {
+                int read = inflater.inflate(bytes, length, bytes.length - length);
+                if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+
+            if (length != bytes.length) {
+                throw new UncheckedIOException(new IOException("Invalid compressed data for " + raw.entry.getName()));
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Invalid compressed data for " + raw.entry.getName(), e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            byte[] buffer = new byte[bytes.length + (bytes.length >> 3) + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static final class Data {
+
+        final ZipFileReader.Entry entry;
+        final byte[] extra;
+        final int method;
+        final int crc;
+        final long size;
+        final byte[] data;
+        final boolean transformed;
+
+        Data(ZipFileReader.Entry entry, byte[] extra, int method, int crc, long size, byte[] data, boolean transformed) {
+            this.entry = entry;
+            this.extra = extra;
+            this.method = method;
+            this.crc = crc;
+            this.size = size;
+            this.data = data;
+            this.transformed = transformed;
+        }
+
+    }
+
+    public static final class Result {
+
+        private final int classes;
+        private final int transformedClasses;
+        private final long nanos;
+
+        Result(int classes, int transformedClasses, long nanos) {
+            this.classes = classes;
+            this.transformedClasses = transformedClasses;
+            this.nanos = nanos;
+        }
+
+        public int getClasses() {
+            return this.classes;
+        }
+
+        public int getTransformedClasses() {
+            return this.transformedClasses;
+        }
+
+        public long getTimeNanos() {
+            return this.nanos;
+        }
+
+        public double getClassesPerSecond() {
+            return this.nanos > 0 ? this.classes * 1e9 / this.nanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d classes (%d transformed) in %.1f ms, %.0f classes/s",
+                    this.classes, this.transformedClasses, this.nanos / 1e6, getClassesPerSecond());
+        }
+
+    }
+
+}
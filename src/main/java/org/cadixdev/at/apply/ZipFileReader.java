@@ -0,0 +1,228 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.apply;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the central directory of a zip file and the raw (compressed) data of its entries, ZIP64 is not supported
+final class ZipFileReader implements Closeable {
+
+    static final int LOCAL_HEADER = 0x04034b50;
+    static final int CENTRAL_HEADER = 0x02014b50;
+    static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+    static final int LOCAL_HEADER_SIZE = 30;
+    static final int CENTRAL_HEADER_SIZE = 46;
+    static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private final FileChannel channel;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private byte[] comment;
+
+    ZipFileReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            readCentralDirectory();
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    byte[] getComment() {
+        return this.comment;
+    }
+
+    private void readCentralDirectory() throws IOException {
+        long size = this.channel.size();
+        int tail = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_SIZE + 0xFFFF);
+        ByteBuffer buffer = read(size - tail, tail);
+
+        int end = -1;
+        for (int pos = tail - END_OF_CENTRAL_DIRECTORY_SIZE; pos >= 0; pos--) {
+            if (buffer.getInt(pos) == END_OF_CENTRAL_DIRECTORY
+                    && pos + END_OF_CENTRAL_DIRECTORY_SIZE + Short.toUnsignedInt(buffer.getShort(pos + 20)) == tail) {
+                end = pos;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new IOException("Not a zip file (end of central directory not found)");
+        }
+
+        int count = Short.toUnsignedInt(buffer.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(buffer.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+        if (count == 0xFFFF || directoryOffset == 0xFFFFFFFFL) {
+            throw new IOException("ZIP64 archives are not supported");
+        }
+
+        this.comment = new byte[Short.toUnsignedInt(buffer.getShort(end + 20))];
+        ((Buffer) buffer).position(end + END_OF_CENTRAL_DIRECTORY_SIZE);
+        buffer.get(this.comment);
+
+        ByteBuffer directory = read(directoryOffset, (int) directorySize);
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + CENTRAL_HEADER_SIZE > directory.limit() || directory.getInt(pos) != CENTRAL_HEADER) {
+                throw new IOException("Invalid central directory entry " + i);
+            }
+
+            int length = CENTRAL_HEADER_SIZE + Short.toUnsignedInt(directory.getShort(pos + 28))
+                    + Short.toUnsignedInt(directory.getShort(pos + 30)) + Short.toUnsignedInt(directory.getShort(pos + 32));
+            if (pos + length > directory.limit()) {
+                throw new IOException("Invalid central directory entry " + i);
+            }
+
+            byte[] header = new byte[length];
+            ((Buffer) directory).position(pos);
+            directory.get(header);
+            Entry entry = new Entry(header);
+            if (entry.getCompressedSize() == 0xFFFFFFFFL || entry.getSize() == 0xFFFFFFFFL || entry.getLocalHeaderOffset() == 0xFFFFFFFFL) {
+                throw new IOException("ZIP64 archives are not supported");
+            }
+            this.entries.add(entry);
+            pos += length;
+        }
+    }
+
+    // Returns the extra field of the local header and the raw data of the entry
+    byte[][] readData(Entry entry) throws IOException {
+        ByteBuffer header = read(entry.getLocalHeaderOffset(), LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_HEADER) {
+            throw new IOException("Invalid local header for " + entry.getName());
+        }
+
+        int nameLength = Short.toUnsignedInt(header.getShort(26));
+        int extraLength = Short.toUnsignedInt(header.getShort(28));
+        long offset = entry.getLocalHeaderOffset() + LOCAL_HEADER_SIZE + nameLength;
+
+        byte[] extra = new byte[extraLength];
+        read(offset, extraLength).get(extra);
+
+        if (entry.getCompressedSize() > Integer.MAX_VALUE - 8) {
+            throw new IOException("Entry too large: " + entry.getName());
+        }
+        byte[] data = new byte[(int) entry.getCompressedSize()];
+        read(offset + extraLength, data.length).get(data);
+        return new byte[][] { extra, data };
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    static final class Entry {
+
+        // The complete central directory header, including name, extra field and comment
+        private final byte[] header;
+        private final ByteBuffer buffer;
+        private final String name;
+
+        Entry(byte[] header) {
+            this.header = header;
+            this.buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+            this.name = new String(header, CENTRAL_HEADER_SIZE, getNameLength(), StandardCharsets.UTF_8);
+        }
+
+        int getNameLength() {
+            return Short.toUnsignedInt(this.buffer.getShort(28));
+        }
+
+        byte[] getHeader() {
+            return this.header;
+        }
+
+        String getName() {
+            return this.name;
+        }
+
+        int getVersionNeeded() {
+            return Short.toUnsignedInt(this.buffer.getShort(6));
+        }
+
+        // Modification time and date
+        int getTime() {
+            return this.buffer.getInt(12);
+        }
+
+        int getFlags() {
+            return Short.toUnsignedInt(this.buffer.getShort(8));
+        }
+
+        int getMethod() {
+            return Short.toUnsignedInt(this.buffer.getShort(10));
+        }
+
+        int getCrc() {
+            return this.buffer.getInt(16);
+        }
+
+        long getCompressedSize() {
+            return Integer.toUnsignedLong(this.buffer.getInt(20));
+        }
+
+        long getSize() {
+            return Integer.toUnsignedLong(this.buffer.getInt(24));
+        }
+
+        long getLocalHeaderOffset() {
+            return Integer.toUnsignedLong(this.buffer.getInt(42));
+        }
+
+    }
+
+}
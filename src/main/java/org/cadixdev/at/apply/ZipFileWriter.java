@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.apply;
+
+import static org.cadixdev.at.apply.ZipFileReader.CENTRAL_HEADER_SIZE;
+import static org.cadixdev.at.apply.ZipFileReader.END_OF_CENTRAL_DIRECTORY;
+import static org.cadixdev.at.apply.ZipFileReader.END_OF_CENTRAL_DIRECTORY_SIZE;
+import static org.cadixdev.at.apply.ZipFileReader.LOCAL_HEADER;
+import static org.cadixdev.at.apply.ZipFileReader.LOCAL_HEADER_SIZE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Writes entries with their raw (compressed) data, the central directory is based on the one of the input
+final class ZipFileWriter implements Closeable {
+
+    // Sizes are always written in the local header, so data descriptors of the input are dropped
+    private static final int DATA_DESCRIPTOR_FLAG = 1 << 3;
+
+    private final OutputStream out;
+    private final ByteArrayOutputStream directory = new ByteArrayOutputStream();
+    private final ByteBuffer buffer = ByteBuffer.allocate(CENTRAL_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private long position;
+    private int count;
+
+    ZipFileWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    void write(ZipFileReader.Entry entry, byte[] extra, int method, int crc, long size, byte[] data) throws IOException {
+        if (this.position > 0xFFFFFFFFL || this.count == 0xFFFF) {
+            throw new IOException("ZIP64 archives are not supported");
+        }
+
+        byte[] header = entry.getHeader();
+        int nameLength = entry.getNameLength();
+        int flags = entry.getFlags() & ~DATA_DESCRIPTOR_FLAG;
+
+        ((Buffer) this.buffer).clear();
+        this.buffer.putInt(LOCAL_HEADER)
+                .putShort((short) entry.getVersionNeeded())
+                .putShort((short) flags)
+                .putShort((short) method)
+                .putInt(entry.getTime())
+                .putInt(crc)
+                .putInt(data.length)
+                .putInt((int) size)
+                .putShort((short) nameLength)
+                .putShort((short) extra.length);
+        this.out.write(this.buffer.array(), 0, LOCAL_HEADER_SIZE);
+        this.out.write(header, CENTRAL_HEADER_SIZE, nameLength);
+        this.out.write(extra);
+        this.out.write(data);
+
+        // Copy the central directory header and update everything that might have changed
+        ByteBuffer central = ByteBuffer.wrap(header.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        central.putShort(8, (short) flags)
+                .putShort(10, (short) method)
+                .putInt(16, crc)
+                .putInt(20, data.length)
+                .putInt(24, (int) size)
+                .putInt(42, (int) this.position);
+        this.directory.write(central.array(), 0, central.capacity());
+
+        this.position += LOCAL_HEADER_SIZE + nameLength + extra.length + data.length;
+        this.count++;
+    }
+
+    void finish(byte[] comment) throws IOException {
+        if (this.position > 0xFFFFFFFFL) {
+            throw new IOException("ZIP64 archives are not supported");
+        }
+
+        this.directory.writeTo(this.out);
+
+        ((Buffer) this.buffer).clear();
+        this.buffer.putInt(END_OF_CENTRAL_DIRECTORY)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) this.count)
+                .putShort((short) this.count)
+                .putInt(this.directory.size())
+                .putInt((int) this.position)
+                .putShort((short) comment.length);
+        this.out.write(this.buffer.array(), 0, END_OF_CENTRAL_DIRECTORY_SIZE);
+        this.out.write(comment);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.ClassNameFilter;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.lorenz.MappingSet;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+abstract class AbstractAccessTransformSet implements AccessTransformSet {
+
+    final Map<String, Class> classes;
+
+    AbstractAccessTransformSet(Map<String, Class> classes) {
+        this.classes = classes;
+    }
+
+    abstract Class createClass(String name);
+
+    // Initial capacity for a HashMap that holds the expected number of entries without resizing
+    static int capacity(int expected) {
+        return (int) (expected / 0.75f) + 1;
+    }
+
+    // Overridden by sets that create their classes on first access
+    Class lookup(Object key) {
+        return this.classes.get(key);
+    }
+
+    @Override
+    public Map<String, Class> getClasses() {
+        return Collections.unmodifiableMap(this.classes);
+    }
+
+    @Override
+    public Optional<Class> getClass(String name) {
+        Objects.requireNonNull(name, "name");
+        return optional(lookup(key(name)));
+    }
+
+    @Override
+    public Optional<Class> getClass(CharSequence name, int start, int end) {
+        Objects.requireNonNull(name, "name");
+        InternalNames.checkRange(name, start, end);
+        return optional(lookup(new NameKey(name, start, end)));
+    }
+
+    @Override
+    public Class getOrCreateClass(String name) {
+        Objects.requireNonNull(name, "name");
+
+        Class classSet = lookup(key(name));
+        if (classSet != null) {
+            return classSet;
+        }
+        return this.classes.computeIfAbsent(name.replace('.', '/'), this::createClass);
+    }
+
+    @Override
+    public Optional<Class> removeClass(String name) {
+        Objects.requireNonNull(name, "name");
+        return Optional.ofNullable(this.classes.remove(key(name)));
+    }
+
+    // Only binary names with '.' need a NameKey to be looked up
+    static Object key(String name) {
+        return name.indexOf('.') < 0 ? name : new NameKey(name, 0, name.length());
+    }
+
+    private static Optional<Class> optional(Class classSet) {
+        return classSet != null ? ((AbstractClassAccessTransformSet) classSet).optional : Optional.empty();
+    }
+
+    @Override
+    public ClassNameFilter createClassNameFilter() {
+        return new BloomClassNameFilter(getClasses().values().stream()
+                .filter(BloomClassNameFilter::hasTransforms)
+                .map(Class::getName)
+                .collect(Collectors.toList()));
+    }
+
+    // Only allocates for binary names with '.', which bytecode never contains
+    Class findClass(String name) {
+        return lookup(key(name));
+    }
+
+    @Override
+    public int effectiveFieldAccess(String owner, String name, int access) {
+        Objects.requireNonNull(owner, "owner");
+        Objects.requireNonNull(name, "name");
+
+        Class classSet = findClass(owner);
+        return classSet != null ? classSet.getField(name).apply(access) : access;
+    }
+
+    @Override
+    public int effectiveMethodAccess(String owner, String name, String descriptor, int access) {
+        Objects.requireNonNull(owner, "owner");
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(descriptor, "descriptor");
+
+        Class classSet = findClass(owner);
+        return classSet != null ? classSet.getMethod(name, descriptor).apply(access) : access;
+    }
+
+    @Override
+    public AccessTransformSet remap(MappingSet mappings) {
+        return new MappingSetAccessTransformSetMapper(mappings).remap(this);
+    }
+
+    @Override
+    public AccessTransformSet remap(MappingSet mappings, ForkJoinPool pool) {
+        return new MappingSetAccessTransformSetMapper(mappings).remap(this, pool);
+    }
+
+    @Override
+    public void merge(AccessTransformSet other) {
+        other.getClasses().forEach((name, classSet) -> getOrCreateClass(name).merge(classSet));
+    }
+
+    @Override
+    public void completeAll(InheritanceProvider provider) {
+        Objects.requireNonNull(provider, "provider");
+        new InheritanceCompleter(this, provider).completeAll();
+    }
+
+    @Override
+    public void completeAll(InheritanceProvider provider, ForkJoinPool pool) {
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(pool, "pool");
+        new ParallelInheritanceCompleter(this, provider).completeAll(pool);
+    }
+
+    @Override
+    public AccessTransformSet freeze() {
+        return new FrozenAccessTransformSetImpl(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AbstractAccessTransformSet)) {
+            return false;
+        }
+
+        AbstractAccessTransformSet that = (AbstractAccessTransformSet) o;
+        return getClasses().equals(that.getClasses());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClasses().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AccessTransformSet{" + getClasses() + '}';
+    }
+
+}
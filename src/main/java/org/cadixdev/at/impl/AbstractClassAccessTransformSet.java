@@ -0,0 +1,162 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+abstract class AbstractClassAccessTransformSet implements AccessTransformSet.Class {
+
+    private final AccessTransformSet parent;
+    private final String name;
+
+    private volatile boolean complete;
+
+    // Returned by AccessTransformSet.getClass, so lookups don't allocate
+    final Optional<AccessTransformSet.Class> optional = Optional.of(this);
+
+    AbstractClassAccessTransformSet(AccessTransformSet parent, String name) {
+        this.parent = parent;
+        this.name = name;
+    }
+
+    // Implementations that already know the method return the existing signature, so the descriptor is not parsed again
+    MethodSignature signature(String name, String descriptor) {
+        return MethodSignature.of(name, descriptor);
+    }
+
+    @Override
+    public AccessTransformSet getParent() {
+        return parent;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public AccessTransform mergeMethod(String name, String descriptor, AccessTransform transform) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(descriptor, "descriptor");
+        return mergeMethod(signature(name, descriptor), transform);
+    }
+
+    @Override
+    public void merge(AccessTransformSet.Class other) {
+        Objects.requireNonNull(other, "other");
+
+        merge(other.get());
+        mergeAllFields(other.allFields());
+        mergeAllMethods(other.allMethods());
+
+        other.getFields().forEach(this::mergeField);
+        other.getMethods().forEach(this::mergeMethod);
+    }
+
+    @Override
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    @Override
+    public void complete(InheritanceProvider provider, InheritanceProvider.ClassInfo info) {
+        if (this.complete) {
+            return;
+        }
+
+        for (InheritanceProvider.ClassInfo parent : info.provideParents(provider)) {
+            AccessTransformSet.Class parentAts = getParent().getOrCreateClass(parent.getName());
+            parentAts.complete(provider, parent);
+
+            parentAts.getMethods().forEach((signature, transform) -> {
+                if (info.overrides(signature, parent)) {
+                    mergeMethod(signature, transform);
+                }
+            });
+        }
+
+        this.complete = true;
+    }
+
+    @Override
+    public void markComplete() {
+        this.complete = true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AbstractClassAccessTransformSet)) {
+            return false;
+        }
+
+        AbstractClassAccessTransformSet that = (AbstractClassAccessTransformSet) o;
+        return get().equals(that.get()) &&
+                allFields().equals(that.allFields()) &&
+                allMethods().equals(that.allMethods()) &&
+                getFields().equals(that.getFields()) &&
+                getMethods().equals(that.getMethods());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(get(), allFields(), allMethods(), getFields(), getMethods());
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "AccessTransformSet.Class{", "}");
+        if (!get().isEmpty()) {
+            joiner.add(get().toString());
+        }
+        if (!allFields().isEmpty()) {
+            joiner.add("allFields=" + allFields());
+        }
+        if (!allMethods().isEmpty()) {
+            joiner.add("allMethods=" + allMethods());
+        }
+
+        Map<String, AccessTransform> fields = getFields();
+        if (!fields.isEmpty()) {
+            joiner.add("fields=" + fields);
+        }
+        Map<?, AccessTransform> methods = getMethods();
+        if (!methods.isEmpty()) {
+            joiner.add("method=" + methods);
+        }
+        return joiner.toString();
+    }
+
+}
@@ -24,73 +24,21 @@
 
 package org.cadixdev.at.impl;
 
-import org.cadixdev.at.AccessTransformSet;
-import org.cadixdev.lorenz.MappingSet;
-
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
-
-public class AccessTransformSetImpl implements AccessTransformSet {
-
-    private final Map<String, Class> classes = new HashMap<>();
-
-    @Override
-    public Map<String, Class> getClasses() {
-        return Collections.unmodifiableMap(this.classes);
-    }
 
-    @Override
-    public Optional<Class> getClass(String name) {
-        Objects.requireNonNull(name, "name");
-        return Optional.ofNullable(this.classes.get(name.replace('.', '/')));
-    }
-
-    @Override
-    public Class getOrCreateClass(String name) {
-        Objects.requireNonNull(name, "name");
-        return this.classes.computeIfAbsent(name.replace('.', '/'), n -> new ClassAccessTransformSetImpl(this, n));
-    }
+public class AccessTransformSetImpl extends AbstractAccessTransformSet {
 
-    @Override
-    public Optional<Class> removeClass(String name) {
-        Objects.requireNonNull(name, "name");
-        return Optional.ofNullable(this.classes.remove(name.replace('.', '/')));
+    public AccessTransformSetImpl() {
+        super(new HashMap<>());
     }
 
-    @Override
-    public AccessTransformSet remap(MappingSet mappings) {
-        return AccessTransformSetMapper.remap(this, mappings);
-    }
-
-    @Override
-    public void merge(AccessTransformSet other) {
-        other.getClasses().forEach((name, classSet) -> getOrCreateClass(name).merge(classSet));
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof AccessTransformSetImpl)) {
-            return false;
-        }
-
-        AccessTransformSetImpl that = (AccessTransformSetImpl) o;
-        return this.classes.equals(that.classes);
-    }
-
-    @Override
-    public int hashCode() {
-        return this.classes.hashCode();
+    AccessTransformSetImpl(int expectedClasses) {
+        super(new HashMap<>(capacity(expectedClasses)));
     }
 
     @Override
-    public String toString() {
-        return "AccessTransformSet{" + classes + '}';
+    Class createClass(String name) {
+        return new ClassAccessTransformSetImpl(this, name);
     }
 
 }
@@ -24,63 +24,162 @@
 
 package org.cadixdev.at.impl;
 
+import org.cadixdev.at.AccessTransform;
 import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.AccessTransformSetRemapper;
+import org.cadixdev.bombe.type.MethodDescriptor;
 import org.cadixdev.bombe.type.signature.MethodSignature;
-import org.cadixdev.lorenz.MappingSet;
-import org.cadixdev.lorenz.model.ClassMapping;
-import org.cadixdev.lorenz.model.FieldMapping;
-import org.cadixdev.lorenz.model.Mapping;
-import org.cadixdev.lorenz.model.MethodMapping;
 
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-final class AccessTransformSetMapper {
+abstract class AccessTransformSetMapper implements AccessTransformSetRemapper {
 
-    private AccessTransformSetMapper() {
+    // Number of classes remapped by a single task when remapping in parallel
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    // Most method descriptors are shared by many methods, so they are only deobfuscated once
+    private final Map<MethodDescriptor, MethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    // Returns null if there is no mapping for the class. Neither this nor deobfuscate() are called
+    // concurrently, but the members of the returned MappedClass are looked up from many threads
+    abstract MappedClass getClassMapping(String name);
+
+    abstract MethodDescriptor deobfuscate(MethodDescriptor descriptor);
+
+    @Override
+    public AccessTransformSet remap(AccessTransformSet set) {
+        Objects.requireNonNull(set, "set");
+
+        AccessTransformSetImpl remapped = new AccessTransformSetImpl(set.getClasses().size());
+        for (AccessTransformSet.Class classSet : set.getClasses().values()) {
+            add(remapped, remap(remapped, classSet, getClassMapping(classSet.getName())));
+        }
+        return remapped;
     }
 
-    static AccessTransformSet remap(AccessTransformSet set, MappingSet mappings) {
+    @Override
+    public AccessTransformSet remap(AccessTransformSet set, ForkJoinPool pool) {
         Objects.requireNonNull(set, "set");
-        Objects.requireNonNull(mappings, "mappings");
+        Objects.requireNonNull(pool, "pool");
 
-        AccessTransformSet remapped = AccessTransformSet.create();
-        set.getClasses().forEach((className, classSet) -> {
-            Optional<? extends ClassMapping<?, ?>> mapping = mappings.getClassMapping(className);
-            remap(mapping.orElse(null), classSet, remapped.getOrCreateClass(mapping.map(Mapping::getFullDeobfuscatedName).orElse(className)));
-        });
+        AccessTransformSet.Class[] classes = set.getClasses().values().toArray(new AccessTransformSet.Class[0]);
+        AccessTransformSetImpl remapped = new AccessTransformSetImpl(classes.length);
+
+        // Lookups in the mappings may create mappings lazily (e.g. for inner classes of mapped classes),
+        // so classes and descriptors are resolved up front and only member lookups happen in parallel
+        MappedClass[] mappings = new MappedClass[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            mappings[i] = getClassMapping(classes[i].getName());
+            if (mappings[i] != null) {
+                for (MethodSignature signature : classes[i].getMethods().keySet()) {
+                    deobfuscateCached(signature.getDescriptor());
+                }
+            }
+        }
+
+        // Remap all classes in parallel, then add them to the (non-concurrent) result
+        ClassAccessTransformSetImpl[] results = new ClassAccessTransformSetImpl[classes.length];
+        pool.invoke(new RemapTask(remapped, classes, mappings, results, 0, classes.length));
+
+        for (ClassAccessTransformSetImpl result : results) {
+            add(remapped, result);
+        }
         return remapped;
     }
 
-    private static void remap(ClassMapping<?, ?> mapping, AccessTransformSet.Class set, AccessTransformSet.Class remapped) {
-        remapped.merge(set.get());
-        remapped.mergeAllFields(set.allFields());
-        remapped.mergeAllMethods(set.allMethods());
+    private static void add(AccessTransformSetImpl remapped, ClassAccessTransformSetImpl classSet) {
+        // Multiple classes might be mapped to the same name
+        AccessTransformSet.Class existing = remapped.classes.putIfAbsent(classSet.getName(), classSet);
+        if (existing != null) {
+            existing.merge(classSet);
+        }
+    }
+
+    private MethodDescriptor deobfuscateCached(MethodDescriptor descriptor) {
+        MethodDescriptor deobfuscated = this.descriptors.get(descriptor);
+        return deobfuscated != null ? deobfuscated : this.descriptors.computeIfAbsent(descriptor, this::deobfuscate);
+    }
+
+    private ClassAccessTransformSetImpl remap(AccessTransformSet remapped, AccessTransformSet.Class set, MappedClass mapping) {
+        Map<String, AccessTransform> fields = set.getFields();
+        Map<MethodSignature, AccessTransform> methods = set.getMethods();
+        ClassAccessTransformSetImpl result = new ClassAccessTransformSetImpl(remapped,
+                mapping != null ? mapping.getDeobfuscatedName() : set.getName(), fields.size(), methods.size());
+
+        result.merge(set.get());
+        result.mergeAllFields(set.allFields());
+        result.mergeAllMethods(set.allMethods());
 
         if (mapping == null) {
-            set.getFields().forEach(remapped::mergeField);
-            set.getMethods().forEach(remapped::mergeMethod);
+            fields.forEach(result::mergeField);
+            methods.forEach(result::mergeMethod);
         } else {
-            set.getFields().forEach((name, transform) ->
-                remapped.mergeField(
-                    mapping.getFieldMapping(name)
-                        .map(FieldMapping::getDeobfuscatedName)
-                        .orElse(name),
-                    transform
-                )
-            );
+            fields.forEach((name, transform) -> {
+                String deobfuscatedName = mapping.getField(name);
+                result.mergeField(deobfuscatedName != null ? deobfuscatedName : name, transform);
+            });
 
-            set.getMethods().forEach((signature, transform) -> {
-                remapped.mergeMethod(
-                    mapping.getMethodMapping(signature)
-                        .map(MethodMapping::getDeobfuscatedSignature)
-                        .orElseGet(() -> new MethodSignature(
-                            signature.getName(),
-                            mapping.getMappings().deobfuscate(signature.getDescriptor())
-                        )),
-                    transform
-                );
+            methods.forEach((signature, transform) -> {
+                MethodSignature deobfuscatedSignature = mapping.getMethod(signature);
+                if (deobfuscatedSignature == null) {
+                    deobfuscatedSignature = new MethodSignature(signature.getName(), deobfuscateCached(signature.getDescriptor()));
+                }
+                result.mergeMethod(deobfuscatedSignature, transform);
             });
         }
+
+        return result;
+    }
+
+    interface MappedClass {
+
+        String getDeobfuscatedName();
+
+        // Both return null if there is no mapping for the member
+        String getField(String name);
+        MethodSignature getMethod(MethodSignature signature);
+
     }
+
+    private final class RemapTask extends RecursiveAction {
+
+        private final AccessTransformSet remapped;
+        private final AccessTransformSet.Class[] classes;
+        private final MappedClass[] mappings;
+        private final ClassAccessTransformSetImpl[] results;
+        private final int start;
+        private final int end;
+
+        RemapTask(AccessTransformSet remapped, AccessTransformSet.Class[] classes, MappedClass[] mappings,
+                ClassAccessTransformSetImpl[] results, int start, int end) {
+            this.remapped = remapped;
+            this.classes = classes;
+            this.mappings = mappings;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= PARALLEL_THRESHOLD) {
+                for (int i = this.start; i < this.end; i++) {
+                    this.results[i] = remap(this.remapped, this.classes[i], this.mappings[i]);
+                }
+                return;
+            }
+
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(
+                    new RemapTask(this.remapped, this.classes, this.mappings, this.results, this.start, middle),
+                    new RemapTask(this.remapped, this.classes, this.mappings, this.results, middle, this.end)
+            );
+        }
+
+    }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.ClassNameFilter;
+
+import java.util.Collection;
+import java.util.Objects;
+
+// Bloom filter of internal class names, with about 1% false positives.
+// The bit indexes are derived from the same hash as String.hashCode(), so names with '.' don't need to be replaced.
+final class BloomClassNameFilter implements ClassNameFilter {
+
+    private static final int BITS_PER_NAME = 10;
+    private static final int HASHES = 7;
+
+    private final long[] bits;
+    private final int mask;
+
+    BloomClassNameFilter(Collection<String> names) {
+        int size = Integer.highestOneBit(Math.max(names.size() * BITS_PER_NAME - 1, 63)) << 1;
+        this.bits = new long[size >>> 6];
+        this.mask = size - 1;
+
+        for (String name : names) {
+            long hash = mix(name.hashCode());
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & this.mask;
+                this.bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+    }
+
+    static boolean hasTransforms(AccessTransformSet.Class classSet) {
+        return !classSet.get().isEmpty() || !classSet.allFields().isEmpty() || !classSet.allMethods().isEmpty() ||
+                !classSet.getFields().isEmpty() || !classSet.getMethods().isEmpty();
+    }
+
+    @Override
+    public boolean mightContain(CharSequence name, int start, int end) {
+        Objects.requireNonNull(name, "name");
+        InternalNames.checkRange(name, start, end);
+
+        long hash = mix(InternalNames.hash(name, start, end));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & this.mask;
+            if ((this.bits[bit >>> 6] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Spreads the 32-bit hash over 64 bits (finalizer of MurmurHash3 x64)
+    private static long mix(int hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
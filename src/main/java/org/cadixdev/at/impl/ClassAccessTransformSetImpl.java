@@ -26,42 +26,44 @@
 
 import org.cadixdev.at.AccessTransform;
 import org.cadixdev.at.AccessTransformSet;
-import org.cadixdev.bombe.analysis.InheritanceProvider;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.StringJoiner;
+import java.util.SortedMap;
 
-class ClassAccessTransformSetImpl implements AccessTransformSet.Class {
-
-    private final AccessTransformSet parent;
-    private final String name;
+class ClassAccessTransformSetImpl extends AbstractClassAccessTransformSet {
 
     private AccessTransform classTransform = AccessTransform.EMPTY;
     private AccessTransform allFields = AccessTransform.EMPTY;
     private AccessTransform allMethods = AccessTransform.EMPTY;
 
-    private final Map<String, AccessTransform> fields = new HashMap<>();
-    private final Map<MethodSignature, AccessTransform> methods = new HashMap<>();
-
-    private boolean complete;
+    private final Map<String, AccessTransform> fields;
+    private final Map<MethodSignature, AccessTransform> methods;
+    // Built on the first lookup by descriptor string, which is a read, so the set can still be read from multiple
+    // threads once it is populated: the index is only published after it is built, and threads that race to build
+    // it each publish a complete copy.
+    private volatile MethodIndex methodIndex;
 
     ClassAccessTransformSetImpl(AccessTransformSet parent, String name) {
-        this.parent = parent;
-        this.name = name;
+        super(parent, name);
+        this.fields = new HashMap<>();
+        this.methods = new HashMap<>();
     }
 
-    @Override
-    public AccessTransformSet getParent() {
-        return parent;
+    ClassAccessTransformSetImpl(AccessTransformSet parent, String name, int expectedFields, int expectedMethods) {
+        super(parent, name);
+        this.fields = new HashMap<>(AbstractAccessTransformSet.capacity(expectedFields));
+        this.methods = new HashMap<>(AbstractAccessTransformSet.capacity(expectedMethods));
     }
 
-    @Override
-    public String getName() {
-        return name;
+    // Used with sorted maps, whose order getFields() and getMethods() keep
+    ClassAccessTransformSetImpl(AccessTransformSet parent, String name, Map<String, AccessTransform> fields, Map<MethodSignature, AccessTransform> methods) {
+        super(parent, name);
+        this.fields = fields;
+        this.methods = methods;
     }
 
     @Override
@@ -111,7 +113,9 @@ public AccessTransform replaceAllMethods(AccessTransform transform) {
 
     @Override
     public Map<String, AccessTransform> getFields() {
-        return Collections.unmodifiableMap(this.fields);
+        return this.fields instanceof SortedMap
+                ? Collections.unmodifiableSortedMap((SortedMap<String, AccessTransform>) this.fields)
+                : Collections.unmodifiableMap(this.fields);
     }
 
     @Override
@@ -143,7 +147,9 @@ public AccessTransform replaceField(String name, AccessTransform transform) {
 
     @Override
     public Map<MethodSignature, AccessTransform> getMethods() {
-        return Collections.unmodifiableMap(this.methods);
+        return this.methods instanceof SortedMap
+                ? Collections.unmodifiableSortedMap((SortedMap<MethodSignature, AccessTransform>) this.methods)
+                : Collections.unmodifiableMap(this.methods);
     }
 
     @Override
@@ -151,6 +157,29 @@ public AccessTransform getMethod(MethodSignature signature) {
         return this.methods.getOrDefault(Objects.requireNonNull(signature, "signature"), this.allMethods);
     }
 
+    @Override
+    public AccessTransform getMethod(String name, String descriptor) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(descriptor, "descriptor");
+
+        MethodSignature signature = methodIndex().get(name, descriptor);
+        return signature != null ? this.methods.get(signature) : this.allMethods;
+    }
+
+    @Override
+    MethodSignature signature(String name, String descriptor) {
+        MethodSignature signature = methodIndex().get(name, descriptor);
+        return signature != null ? signature : super.signature(name, descriptor);
+    }
+
+    private MethodIndex methodIndex() {
+        MethodIndex index = this.methodIndex;
+        if (index == null) {
+            this.methodIndex = index = MethodIndex.of(this.methods.keySet());
+        }
+        return index;
+    }
+
     @Override
     public AccessTransform mergeMethod(MethodSignature signature, AccessTransform transform) {
         Objects.requireNonNull(signature, "signature");
@@ -159,7 +188,13 @@ public AccessTransform mergeMethod(MethodSignature signature, AccessTransform tr
         if (transform.isEmpty()) {
             return this.methods.getOrDefault(signature, AccessTransform.EMPTY);
         }
-        return this.methods.merge(signature, transform, AccessTransform::merge);
+        int size = this.methods.size();
+        AccessTransform merged = this.methods.merge(signature, transform, AccessTransform::merge);
+        MethodIndex index = this.methodIndex;
+        if (index != null && this.methods.size() != size) {
+            index.add(signature);
+        }
+        return merged;
     }
 
     @Override
@@ -168,88 +203,20 @@ public AccessTransform replaceMethod(MethodSignature signature, AccessTransform
         Objects.requireNonNull(transform, "transform");
 
         if (transform.isEmpty()) {
-            return this.methods.remove(signature);
-        }
-        return this.methods.put(signature, transform);
-    }
-
-    @Override
-    public void merge(AccessTransformSet.Class other) {
-        Objects.requireNonNull(other, "other");
-
-        merge(other.get());
-        mergeAllFields(other.allFields());
-        mergeAllMethods(other.allMethods());
-
-        other.getFields().forEach(this::mergeField);
-        other.getMethods().forEach(this::mergeMethod);
-    }
-
-    @Override
-    public boolean isComplete() {
-        return this.complete;
-    }
-
-    @Override
-    public void complete(InheritanceProvider provider, InheritanceProvider.ClassInfo info) {
-        if (this.complete) {
-            return;
+            AccessTransform previous = this.methods.remove(signature);
+            MethodIndex index = this.methodIndex;
+            if (index != null && previous != null) {
+                index.remove(signature);
+            }
+            return previous;
         }
 
-        for (InheritanceProvider.ClassInfo parent : info.provideParents(provider)) {
-            AccessTransformSet.Class parentAts = getParent().getOrCreateClass(parent.getName());
-            parentAts.complete(provider, parent);
-
-            parentAts.getMethods().forEach((signature, transform) -> {
-                if (info.overrides(signature, parent)) {
-                    mergeMethod(signature, transform);
-                }
-            });
+        AccessTransform previous = this.methods.put(signature, transform);
+        MethodIndex index = this.methodIndex;
+        if (index != null && previous == null) {
+            index.add(signature);
         }
-
-        this.complete = true;
+        return previous;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof ClassAccessTransformSetImpl)) {
-            return false;
-        }
-
-        ClassAccessTransformSetImpl that = (ClassAccessTransformSetImpl) o;
-        return this.classTransform.equals(that.classTransform) &&
-                this.allFields.equals(that.allFields) &&
-                this.allMethods.equals(that.allMethods) &&
-                this.fields.equals(that.fields) &&
-                this.methods.equals(that.methods);
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(this.classTransform, this.allFields, this.allMethods, this.fields, this.methods);
-    }
-
-    @Override
-    public String toString() {
-        StringJoiner joiner = new StringJoiner(", ", "AccessTransformSet.Class{", "}");
-        if (!this.classTransform.isEmpty()) {
-            joiner.add(this.classTransform.toString());
-        }
-        if (!this.allFields.isEmpty()) {
-            joiner.add("allFields=" + this.allFields);
-        }
-        if (!this.allMethods.isEmpty()) {
-            joiner.add("allMethods=" + this.allMethods);
-        }
-        if (!this.fields.isEmpty()) {
-            joiner.add("fields=" + this.fields);
-        }
-        if (!this.methods.isEmpty()) {
-            joiner.add("method=" + this.methods);
-        }
-        return joiner.toString();
-    }
 }
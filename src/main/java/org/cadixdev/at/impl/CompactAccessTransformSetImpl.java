@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.bombe.type.MethodDescriptor;
+
+import java.util.HashMap;
+
+public class CompactAccessTransformSetImpl extends AbstractAccessTransformSet {
+
+    // Member names and descriptors are shared between all classes of the set
+    final Interner<String> names = new Interner<>();
+    final Interner<MethodDescriptor> descriptors = new Interner<>();
+    // Same ids as descriptors, for lookups by descriptor string
+    final Interner<String> descriptorStrings = new Interner<>();
+
+    public CompactAccessTransformSetImpl() {
+        super(new HashMap<>());
+    }
+
+    int internDescriptor(MethodDescriptor descriptor) {
+        int id = this.descriptors.intern(descriptor);
+        if (id == this.descriptorStrings.size()) {
+            this.descriptorStrings.intern(descriptor.toString());
+        }
+        return id;
+    }
+
+    @Override
+    Class createClass(String name) {
+        return new CompactClassAccessTransformSetImpl(this, name);
+    }
+
+}
@@ -0,0 +1,376 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessChange;
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.ModifierChange;
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Stores the member transforms as packed bytes keyed by the interned member names and descriptors
+class CompactClassAccessTransformSetImpl extends AbstractClassAccessTransformSet {
+
+    private static final AccessChange[] ACCESS_CHANGES = AccessChange.values();
+    private static final ModifierChange[] FINAL_CHANGES = ModifierChange.values();
+
+    private final CompactAccessTransformSetImpl set;
+
+    private AccessTransform classTransform = AccessTransform.EMPTY;
+    private AccessTransform allFields = AccessTransform.EMPTY;
+    private AccessTransform allMethods = AccessTransform.EMPTY;
+
+    // Field keys are the name id, method keys are the name id in the upper and the descriptor id in the lower 32 bits
+    private final PackedTransformTable fields = new PackedTransformTable();
+    private final PackedTransformTable methods = new PackedTransformTable();
+
+    CompactClassAccessTransformSetImpl(CompactAccessTransformSetImpl parent, String name) {
+        super(parent, name);
+        this.set = parent;
+    }
+
+    @Override
+    public AccessTransform get() {
+        return this.classTransform;
+    }
+
+    @Override
+    public AccessTransform merge(AccessTransform transform) {
+        return this.classTransform = this.classTransform.merge(transform);
+    }
+
+    @Override
+    public AccessTransform replace(AccessTransform transform) {
+        return this.classTransform = Objects.requireNonNull(transform, "transform");
+    }
+
+    @Override
+    public AccessTransform allFields() {
+        return this.allFields;
+    }
+
+    @Override
+    public AccessTransform mergeAllFields(AccessTransform transform) {
+        return this.allFields = this.allFields.merge(transform);
+    }
+
+    @Override
+    public AccessTransform replaceAllFields(AccessTransform transform) {
+        return this.allFields = Objects.requireNonNull(transform, "transform");
+    }
+
+    @Override
+    public AccessTransform allMethods() {
+        return this.allMethods;
+    }
+
+    @Override
+    public AccessTransform mergeAllMethods(AccessTransform transform) {
+        return this.allMethods = this.allMethods.merge(transform);
+    }
+
+    @Override
+    public AccessTransform replaceAllMethods(AccessTransform transform) {
+        return this.allMethods = Objects.requireNonNull(transform, "transform");
+    }
+
+    @Override
+    public Map<String, AccessTransform> getFields() {
+        return new FieldMap();
+    }
+
+    @Override
+    public AccessTransform getField(String name) {
+        long key = fieldKey(Objects.requireNonNull(name, "name"));
+        byte value = key >= 0 ? this.fields.get(key) : 0;
+        return value != 0 ? unpack(value) : this.allFields;
+    }
+
+    @Override
+    public AccessTransform mergeField(String name, AccessTransform transform) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            long key = fieldKey(name);
+            return key >= 0 ? unpackOrEmpty(this.fields.get(key)) : AccessTransform.EMPTY;
+        }
+        return merge(this.fields, this.set.names.intern(name), transform);
+    }
+
+    @Override
+    public AccessTransform replaceField(String name, AccessTransform transform) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            long key = fieldKey(name);
+            return key >= 0 ? unpackOrNull(this.fields.remove(key)) : null;
+        }
+        return unpackOrNull(this.fields.put(this.set.names.intern(name), pack(transform)));
+    }
+
+    @Override
+    public Map<MethodSignature, AccessTransform> getMethods() {
+        return new MethodMap();
+    }
+
+    @Override
+    public AccessTransform getMethod(MethodSignature signature) {
+        long key = methodKey(Objects.requireNonNull(signature, "signature"));
+        byte value = key >= 0 ? this.methods.get(key) : 0;
+        return value != 0 ? unpack(value) : this.allMethods;
+    }
+
+    @Override
+    public AccessTransform getMethod(String name, String descriptor) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(descriptor, "descriptor");
+
+        int nameId = this.set.names.find(name);
+        int descriptorId = nameId >= 0 ? this.set.descriptorStrings.find(descriptor) : -1;
+        byte value = descriptorId >= 0 ? this.methods.get(methodKey(nameId, descriptorId)) : 0;
+        return value != 0 ? unpack(value) : this.allMethods;
+    }
+
+    @Override
+    public AccessTransform mergeMethod(MethodSignature signature, AccessTransform transform) {
+        Objects.requireNonNull(signature, "signature");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            long key = methodKey(signature);
+            return key >= 0 ? unpackOrEmpty(this.methods.get(key)) : AccessTransform.EMPTY;
+        }
+        return merge(this.methods, internMethodKey(signature), transform);
+    }
+
+    @Override
+    public AccessTransform mergeMethod(String name, String descriptor, AccessTransform transform) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(descriptor, "descriptor");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            int nameId = this.set.names.find(name);
+            int descriptorId = nameId >= 0 ? this.set.descriptorStrings.find(descriptor) : -1;
+            return descriptorId >= 0 ? unpackOrEmpty(this.methods.get(methodKey(nameId, descriptorId))) : AccessTransform.EMPTY;
+        }
+
+        // Only parse descriptors that were not seen before
+        int descriptorId = this.set.descriptorStrings.find(descriptor);
+        if (descriptorId < 0) {
+            descriptorId = this.set.internDescriptor(MethodDescriptor.of(descriptor));
+        }
+        return merge(this.methods, methodKey(this.set.names.intern(name), descriptorId), transform);
+    }
+
+    @Override
+    public AccessTransform replaceMethod(MethodSignature signature, AccessTransform transform) {
+        Objects.requireNonNull(signature, "signature");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            long key = methodKey(signature);
+            return key >= 0 ? unpackOrNull(this.methods.remove(key)) : null;
+        }
+        return unpackOrNull(this.methods.put(internMethodKey(signature), pack(transform)));
+    }
+
+    private static AccessTransform merge(PackedTransformTable table, long key, AccessTransform transform) {
+        byte previous = table.get(key);
+        AccessTransform merged = previous != 0 ? unpack(previous).merge(transform) : transform;
+        table.put(key, pack(merged));
+        return merged;
+    }
+
+    // Returns -1 if the name was never interned, in which case there can't be an entry for it
+    private long fieldKey(Object name) {
+        return this.set.names.find(name);
+    }
+
+    private long methodKey(MethodSignature signature) {
+        int name = this.set.names.find(signature.getName());
+        if (name < 0) {
+            return -1;
+        }
+        int descriptor = this.set.descriptors.find(signature.getDescriptor());
+        if (descriptor < 0) {
+            return -1;
+        }
+        return methodKey(name, descriptor);
+    }
+
+    private long internMethodKey(MethodSignature signature) {
+        return methodKey(this.set.names.intern(signature.getName()), this.set.internDescriptor(signature.getDescriptor()));
+    }
+
+    private static long methodKey(int name, int descriptor) {
+        return (long) name << 32 | descriptor;
+    }
+
+    private MethodSignature signature(long key) {
+        return new MethodSignature(this.set.names.get((int) (key >>> 32)), this.set.descriptors.get((int) key));
+    }
+
+    // 0 is reserved for free slots in the table
+    private static byte pack(AccessTransform transform) {
+        return (byte) (transform.getAccess().ordinal() * FINAL_CHANGES.length + transform.getFinal().ordinal() + 1);
+    }
+
+    private static AccessTransform unpack(byte value) {
+        int index = value - 1;
+        return AccessTransform.of(ACCESS_CHANGES[index / FINAL_CHANGES.length], FINAL_CHANGES[index % FINAL_CHANGES.length]);
+    }
+
+    private static AccessTransform unpackOrEmpty(byte value) {
+        return value != 0 ? unpack(value) : AccessTransform.EMPTY;
+    }
+
+    private static AccessTransform unpackOrNull(byte value) {
+        return value != 0 ? unpack(value) : null;
+    }
+
+    // Read-only views that create the entries on demand
+    private abstract class TableMap<K> extends AbstractMap<K, AccessTransform> {
+
+        private final PackedTransformTable table;
+
+        TableMap(PackedTransformTable table) {
+            this.table = table;
+        }
+
+        abstract long key(Object key);
+        abstract K key(long key);
+
+        @Override
+        public int size() {
+            return this.table.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public AccessTransform get(Object key) {
+            long k = key != null ? key(key) : -1;
+            return k >= 0 ? unpackOrNull(this.table.get(k)) : null;
+        }
+
+        @Override
+        public Set<Entry<K, AccessTransform>> entrySet() {
+            return new AbstractSet<Entry<K, AccessTransform>>() {
+                @Override
+                public int size() {
+                    return TableMap.this.table.size();
+                }
+
+                @Override
+                public Iterator<Entry<K, AccessTransform>> iterator() {
+                    return new TableIterator();
+                }
+            };
+        }
+
+        private final class TableIterator implements Iterator<Entry<K, AccessTransform>> {
+
+            private int slot = advance(0);
+
+            private int advance(int slot) {
+                PackedTransformTable table = TableMap.this.table;
+                while (slot < table.capacity() && table.valueAt(slot) == 0) {
+                    slot++;
+                }
+                return slot;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.slot < TableMap.this.table.capacity();
+            }
+
+            @Override
+            public Entry<K, AccessTransform> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                PackedTransformTable table = TableMap.this.table;
+                Entry<K, AccessTransform> entry = new SimpleImmutableEntry<>(key(table.keyAt(this.slot)), unpack(table.valueAt(this.slot)));
+                this.slot = advance(this.slot + 1);
+                return entry;
+            }
+
+        }
+
+    }
+
+    private final class FieldMap extends TableMap<String> {
+
+        FieldMap() {
+            super(CompactClassAccessTransformSetImpl.this.fields);
+        }
+
+        @Override
+        long key(Object key) {
+            return fieldKey(key);
+        }
+
+        @Override
+        String key(long key) {
+            return CompactClassAccessTransformSetImpl.this.set.names.get((int) key);
+        }
+
+    }
+
+    private final class MethodMap extends TableMap<MethodSignature> {
+
+        MethodMap() {
+            super(CompactClassAccessTransformSetImpl.this.methods);
+        }
+
+        @Override
+        long key(Object key) {
+            return key instanceof MethodSignature ? methodKey((MethodSignature) key) : -1;
+        }
+
+        @Override
+        MethodSignature key(long key) {
+            return signature(key);
+        }
+
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Flattens all class, field and method mappings into hash tables that are never modified after construction
+public final class CompiledAccessTransformSetMapper extends AccessTransformSetMapper {
+
+    private final Map<String, CompiledClass> classes = new HashMap<>();
+
+    public CompiledAccessTransformSetMapper(MappingSet mappings) {
+        Objects.requireNonNull(mappings, "mappings");
+        mappings.getTopLevelClassMappings().forEach(this::compile);
+    }
+
+    private void compile(ClassMapping<?, ?> mapping) {
+        Collection<FieldMapping> fieldMappings = mapping.getFieldMappings();
+        Map<String, String> fields = new HashMap<>(AbstractAccessTransformSet.capacity(fieldMappings.size()));
+        for (FieldMapping field : fieldMappings) {
+            fields.put(field.getObfuscatedName(), field.getDeobfuscatedName());
+        }
+
+        Collection<MethodMapping> methodMappings = mapping.getMethodMappings();
+        Map<MethodSignature, MethodSignature> methods = new HashMap<>(AbstractAccessTransformSet.capacity(methodMappings.size()));
+        for (MethodMapping method : methodMappings) {
+            methods.put(method.getSignature(), method.getDeobfuscatedSignature());
+        }
+
+        this.classes.put(mapping.getFullObfuscatedName(), new CompiledClass(mapping.getFullDeobfuscatedName(), fields, methods));
+        mapping.getInnerClassMappings().forEach(this::compile);
+    }
+
+    @Override
+    MappedClass getClassMapping(String name) {
+        return this.classes.get(name);
+    }
+
+    @Override
+    MethodDescriptor deobfuscate(MethodDescriptor descriptor) {
+        String s = descriptor.toString();
+
+        StringBuilder builder = null;
+        int last = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != 'L') {
+                continue;
+            }
+
+            int end = s.indexOf(';', i);
+            CompiledClass mapping = this.classes.get(s.substring(i + 1, end));
+            if (mapping != null) {
+                if (builder == null) {
+                    builder = new StringBuilder(s.length() + 16);
+                }
+                builder.append(s, last, i + 1).append(mapping.name);
+                last = end;
+            }
+            i = end;
+        }
+
+        if (builder == null) {
+            return descriptor;
+        }
+        return MethodDescriptor.of(builder.append(s, last, s.length()).toString());
+    }
+
+    private static final class CompiledClass implements MappedClass {
+
+        final String name;
+        private final Map<String, String> fields;
+        private final Map<MethodSignature, MethodSignature> methods;
+
+        CompiledClass(String name, Map<String, String> fields, Map<MethodSignature, MethodSignature> methods) {
+            this.name = name;
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+        @Override
+        public String getDeobfuscatedName() {
+            return this.name;
+        }
+
+        @Override
+        public String getField(String name) {
+            return this.fields.get(name);
+        }
+
+        @Override
+        public MethodSignature getMethod(MethodSignature signature) {
+            return this.methods.get(signature);
+        }
+
+    }
+
+}
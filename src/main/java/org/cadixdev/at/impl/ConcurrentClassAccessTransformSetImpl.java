@@ -0,0 +1,229 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+class ConcurrentClassAccessTransformSetImpl extends AbstractClassAccessTransformSet {
+
+    private static final AtomicReferenceFieldUpdater<ConcurrentClassAccessTransformSetImpl, AccessTransform> CLASS_TRANSFORM =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentClassAccessTransformSetImpl.class, AccessTransform.class, "classTransform");
+    private static final AtomicReferenceFieldUpdater<ConcurrentClassAccessTransformSetImpl, AccessTransform> ALL_FIELDS =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentClassAccessTransformSetImpl.class, AccessTransform.class, "allFields");
+    private static final AtomicReferenceFieldUpdater<ConcurrentClassAccessTransformSetImpl, AccessTransform> ALL_METHODS =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentClassAccessTransformSetImpl.class, AccessTransform.class, "allMethods");
+
+    private volatile AccessTransform classTransform = AccessTransform.EMPTY;
+    private volatile AccessTransform allFields = AccessTransform.EMPTY;
+    private volatile AccessTransform allMethods = AccessTransform.EMPTY;
+
+    private final Map<String, AccessTransform> fields = new ConcurrentHashMap<>();
+    private final Map<MethodSignature, AccessTransform> methods = new ConcurrentHashMap<>();
+    // Built on the first lookup by descriptor string, then updated after each method is added or removed
+    private volatile MethodIndex methodIndex;
+
+    ConcurrentClassAccessTransformSetImpl(AccessTransformSet parent, String name) {
+        super(parent, name);
+    }
+
+    @Override
+    public AccessTransform get() {
+        return this.classTransform;
+    }
+
+    @Override
+    public AccessTransform merge(AccessTransform transform) {
+        return CLASS_TRANSFORM.accumulateAndGet(this, Objects.requireNonNull(transform, "transform"), AccessTransform::merge);
+    }
+
+    @Override
+    public AccessTransform replace(AccessTransform transform) {
+        return this.classTransform = Objects.requireNonNull(transform, "transform");
+    }
+
+    @Override
+    public AccessTransform allFields() {
+        return this.allFields;
+    }
+
+    @Override
+    public AccessTransform mergeAllFields(AccessTransform transform) {
+        return ALL_FIELDS.accumulateAndGet(this, Objects.requireNonNull(transform, "transform"), AccessTransform::merge);
+    }
+
+    @Override
+    public AccessTransform replaceAllFields(AccessTransform transform) {
+        return this.allFields = Objects.requireNonNull(transform, "transform");
+    }
+
+    @Override
+    public AccessTransform allMethods() {
+        return this.allMethods;
+    }
+
+    @Override
+    public AccessTransform mergeAllMethods(AccessTransform transform) {
+        return ALL_METHODS.accumulateAndGet(this, Objects.requireNonNull(transform, "transform"), AccessTransform::merge);
+    }
+
+    @Override
+    public AccessTransform replaceAllMethods(AccessTransform transform) {
+        return this.allMethods = Objects.requireNonNull(transform, "transform");
+    }
+
+    @Override
+    public Map<String, AccessTransform> getFields() {
+        return Collections.unmodifiableMap(this.fields);
+    }
+
+    @Override
+    public AccessTransform getField(String name) {
+        return this.fields.getOrDefault(Objects.requireNonNull(name, "name"), this.allFields);
+    }
+
+    @Override
+    public AccessTransform mergeField(String name, AccessTransform transform) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            return this.fields.getOrDefault(name, AccessTransform.EMPTY);
+        }
+        return this.fields.merge(name, transform, AccessTransform::merge);
+    }
+
+    @Override
+    public AccessTransform replaceField(String name, AccessTransform transform) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            return this.fields.remove(name);
+        }
+        return this.fields.put(name, transform);
+    }
+
+    @Override
+    public Map<MethodSignature, AccessTransform> getMethods() {
+        return Collections.unmodifiableMap(this.methods);
+    }
+
+    @Override
+    public AccessTransform getMethod(MethodSignature signature) {
+        return this.methods.getOrDefault(Objects.requireNonNull(signature, "signature"), this.allMethods);
+    }
+
+    @Override
+    public AccessTransform getMethod(String name, String descriptor) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(descriptor, "descriptor");
+
+        MethodSignature signature = methodIndex().get(name, descriptor);
+        AccessTransform transform = signature != null ? this.methods.get(signature) : null;
+        return transform != null ? transform : this.allMethods;
+    }
+
+    @Override
+    MethodSignature signature(String name, String descriptor) {
+        MethodSignature signature = methodIndex().get(name, descriptor);
+        return signature != null ? signature : super.signature(name, descriptor);
+    }
+
+    private MethodIndex methodIndex() {
+        MethodIndex index = this.methodIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.methodIndex;
+                if (index == null) {
+                    this.methodIndex = index = MethodIndex.ofConcurrent(this.methods.keySet());
+                }
+            }
+        }
+        return index;
+    }
+
+    // Called after a method was added to or removed from the map. Changes that finished before the index was built
+    // are included in it, later ones update it here. Both happen while locked, so no change is missed while the index
+    // is being built. The current state of the map is checked, so the index ends up the same as the map if the same
+    // method is added and removed concurrently.
+    private void updateMethodIndex(MethodSignature signature) {
+        synchronized (this) {
+            if (this.methodIndex == null) {
+                return;
+            }
+
+            if (this.methods.containsKey(signature)) {
+                this.methodIndex.add(signature);
+            } else {
+                this.methodIndex.remove(signature);
+            }
+        }
+    }
+
+    @Override
+    public AccessTransform mergeMethod(MethodSignature signature, AccessTransform transform) {
+        Objects.requireNonNull(signature, "signature");
+        Objects.requireNonNull(transform, "transform");
+
+        if (transform.isEmpty()) {
+            return this.methods.getOrDefault(signature, AccessTransform.EMPTY);
+        }
+        boolean[] added = new boolean[1];
+        AccessTransform merged = this.methods.compute(signature, (s, previous) -> {
+            added[0] = previous == null;
+            return previous != null ? previous.merge(transform) : transform;
+        });
+        if (added[0]) {
+            updateMethodIndex(signature);
+        }
+        return merged;
+    }
+
+    @Override
+    public AccessTransform replaceMethod(MethodSignature signature, AccessTransform transform) {
+        Objects.requireNonNull(signature, "signature");
+        Objects.requireNonNull(transform, "transform");
+
+        AccessTransform replacement = transform.isEmpty() ? null : transform;
+        AccessTransform[] previous = new AccessTransform[1];
+        this.methods.compute(signature, (s, existing) -> {
+            previous[0] = existing;
+            return replacement;
+        });
+        if ((previous[0] == null) != (replacement == null)) {
+            updateMethodIndex(signature);
+        }
+        return previous[0];
+    }
+
+}
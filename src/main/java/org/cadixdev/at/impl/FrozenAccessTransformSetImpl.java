@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+// Immutable copy of a set, which is safe to read from multiple threads without synchronization
+final class FrozenAccessTransformSetImpl extends AbstractAccessTransformSet {
+
+    // Open addressing (linear probing) table of the class names, so names with '.' can be looked up without replacing them
+    private final String[] names;
+    private final FrozenClassAccessTransformSetImpl[] classSets;
+    private final int size;
+
+    private final Map<String, Class> classesView = new ClassesView();
+
+    // The classes are only stored in the table, getClasses() is a view of it
+    FrozenAccessTransformSetImpl(AccessTransformSet set) {
+        super(Collections.emptyMap());
+
+        Map<String, Class> classes = set.getClasses();
+        int capacity = Integer.highestOneBit(Math.max(classes.size() * 2 - 1, 1)) << 1;
+        this.names = new String[capacity];
+        this.classSets = new FrozenClassAccessTransformSetImpl[capacity];
+        this.size = classes.size();
+
+        int mask = capacity - 1;
+        for (Class classSet : classes.values()) {
+            FrozenClassAccessTransformSetImpl frozen = new FrozenClassAccessTransformSetImpl(this, classSet);
+
+            int slot = FrozenTable.slot(frozen.getName().hashCode(), mask);
+            while (this.names[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            this.names[slot] = frozen.getName();
+            this.classSets[slot] = frozen;
+        }
+    }
+
+    static UnsupportedOperationException frozen() {
+        return new UnsupportedOperationException("AccessTransformSet is frozen");
+    }
+
+    @Override
+    Class createClass(String name) {
+        throw frozen();
+    }
+
+    @Override
+    public Map<String, Class> getClasses() {
+        return this.classesView;
+    }
+
+    @Override
+    public Optional<Class> getClass(String name) {
+        Objects.requireNonNull(name, "name");
+        return getClass(name, 0, name.length());
+    }
+
+    @Override
+    public Optional<Class> getClass(CharSequence name, int start, int end) {
+        Objects.requireNonNull(name, "name");
+        InternalNames.checkRange(name, start, end);
+
+        FrozenClassAccessTransformSetImpl classSet = find(name, start, end);
+        return classSet != null ? classSet.optional : Optional.empty();
+    }
+
+    @Override
+    Class findClass(String name) {
+        return find(name, 0, name.length());
+    }
+
+    private FrozenClassAccessTransformSetImpl find(CharSequence name, int start, int end) {
+        int mask = this.names.length - 1;
+        for (int slot = FrozenTable.slot(InternalNames.hash(name, start, end), mask); this.names[slot] != null; slot = (slot + 1) & mask) {
+            if (InternalNames.equals(this.names[slot], name, start, end)) {
+                return this.classSets[slot];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Class getOrCreateClass(String name) {
+        return getClass(name).orElseThrow(FrozenAccessTransformSetImpl::frozen);
+    }
+
+    @Override
+    public Optional<Class> removeClass(String name) {
+        throw frozen();
+    }
+
+    @Override
+    public void merge(AccessTransformSet other) {
+        throw frozen();
+    }
+
+    @Override
+    public void completeAll(InheritanceProvider provider) {
+        throw frozen();
+    }
+
+    @Override
+    public void completeAll(InheritanceProvider provider, ForkJoinPool pool) {
+        throw frozen();
+    }
+
+    @Override
+    public AccessTransformSet freeze() {
+        return this;
+    }
+
+    private final class ClassesView extends AbstractMap<String, Class> {
+
+        @Override
+        public Class get(Object key) {
+            // Binary names with '.' are not keys of the map
+            if (!(key instanceof String) || ((String) key).indexOf('.') >= 0) {
+                return null;
+            }
+            return findClass((String) key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return FrozenAccessTransformSetImpl.this.size;
+        }
+
+        @Override
+        public Set<Entry<String, Class>> entrySet() {
+            return new AbstractSet<Entry<String, Class>>() {
+                @Override
+                public int size() {
+                    return FrozenAccessTransformSetImpl.this.size;
+                }
+
+                @Override
+                public Iterator<Entry<String, Class>> iterator() {
+                    return new ClassIterator();
+                }
+            };
+        }
+
+    }
+
+    private final class ClassIterator implements Iterator<Map.Entry<String, Class>> {
+
+        private int slot = advance(0);
+
+        private int advance(int slot) {
+            while (slot < FrozenAccessTransformSetImpl.this.names.length && FrozenAccessTransformSetImpl.this.names[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.slot < FrozenAccessTransformSetImpl.this.names.length;
+        }
+
+        @Override
+        public Map.Entry<String, Class> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Map.Entry<String, Class> entry = new AbstractMap.SimpleImmutableEntry<>(
+                    FrozenAccessTransformSetImpl.this.names[this.slot], FrozenAccessTransformSetImpl.this.classSets[this.slot]);
+            this.slot = advance(this.slot + 1);
+            return entry;
+        }
+
+    }
+
+}
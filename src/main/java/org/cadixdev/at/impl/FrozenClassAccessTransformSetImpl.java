@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Map;
+import java.util.Objects;
+
+final class FrozenClassAccessTransformSetImpl extends AbstractClassAccessTransformSet {
+
+    private final AccessTransform classTransform;
+    private final AccessTransform allFields;
+    private final AccessTransform allMethods;
+
+    private final FrozenTable<String> fields;
+    private final FrozenTable<MethodSignature> methods;
+    // Built on the first lookup by descriptor string. The index never changes once built,
+    // so other threads at worst build their own copy.
+    private volatile MethodIndex methodIndex;
+
+    FrozenClassAccessTransformSetImpl(FrozenAccessTransformSetImpl parent, AccessTransformSet.Class other) {
+        super(parent, other.getName());
+        this.classTransform = other.get();
+        this.allFields = other.allFields();
+        this.allMethods = other.allMethods();
+        this.fields = new FrozenTable<>(other.getFields());
+        this.methods = new FrozenTable<>(other.getMethods());
+
+        if (other.isComplete()) {
+            super.markComplete();
+        }
+    }
+
+    @Override
+    public AccessTransform get() {
+        return this.classTransform;
+    }
+
+    @Override
+    public AccessTransform merge(AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public AccessTransform replace(AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public AccessTransform allFields() {
+        return this.allFields;
+    }
+
+    @Override
+    public AccessTransform mergeAllFields(AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public AccessTransform replaceAllFields(AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public AccessTransform allMethods() {
+        return this.allMethods;
+    }
+
+    @Override
+    public AccessTransform mergeAllMethods(AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public AccessTransform replaceAllMethods(AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public Map<String, AccessTransform> getFields() {
+        return this.fields;
+    }
+
+    @Override
+    public AccessTransform getField(String name) {
+        return this.fields.getOrDefault(Objects.requireNonNull(name, "name"), this.allFields);
+    }
+
+    @Override
+    public AccessTransform mergeField(String name, AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public AccessTransform replaceField(String name, AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public Map<MethodSignature, AccessTransform> getMethods() {
+        return this.methods;
+    }
+
+    @Override
+    public AccessTransform getMethod(MethodSignature signature) {
+        return this.methods.getOrDefault(Objects.requireNonNull(signature, "signature"), this.allMethods);
+    }
+
+    @Override
+    public AccessTransform getMethod(String name, String descriptor) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(descriptor, "descriptor");
+
+        MethodIndex index = this.methodIndex;
+        if (index == null) {
+            this.methodIndex = index = MethodIndex.of(this.methods.keySet());
+        }
+
+        MethodSignature signature = index.get(name, descriptor);
+        return signature != null ? this.methods.get(signature) : this.allMethods;
+    }
+
+    @Override
+    public AccessTransform mergeMethod(MethodSignature signature, AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public AccessTransform replaceMethod(MethodSignature signature, AccessTransform transform) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public void merge(AccessTransformSet.Class other) {
+        throw FrozenAccessTransformSetImpl.frozen();
+    }
+
+    @Override
+    public void complete(InheritanceProvider provider, InheritanceProvider.ClassInfo info) {
+        if (!isComplete()) {
+            throw FrozenAccessTransformSetImpl.frozen();
+        }
+    }
+
+    @Override
+    public void markComplete() {
+        if (!isComplete()) {
+            throw FrozenAccessTransformSetImpl.frozen();
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransform;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Immutable open addressing (linear probing) map that is never resized, so reads need no synchronization
+final class FrozenTable<K> extends AbstractMap<K, AccessTransform> {
+
+    private static final Object[] NO_KEYS = new Object[1];
+    private static final AccessTransform[] NO_VALUES = new AccessTransform[1];
+
+    private final Object[] keys;
+    private final AccessTransform[] values;
+    private final int size;
+
+    FrozenTable(Map<K, AccessTransform> map) {
+        this.size = map.size();
+        if (this.size == 0) {
+            this.keys = NO_KEYS;
+            this.values = NO_VALUES;
+            return;
+        }
+
+        // Keep the table at most half full for short probe sequences
+        int capacity = Integer.highestOneBit(this.size * 2 - 1) << 1;
+        this.keys = new Object[capacity];
+        this.values = new AccessTransform[capacity];
+
+        int mask = capacity - 1;
+        map.forEach((key, value) -> {
+            int slot = slot(key.hashCode(), mask);
+            while (this.keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            this.keys[slot] = key;
+            this.values[slot] = value;
+        });
+    }
+
+    static int slot(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9 & mask;
+    }
+
+    @Override
+    public AccessTransform get(Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        int mask = this.keys.length - 1;
+        for (int slot = slot(key.hashCode(), mask); this.keys[slot] != null; slot = (slot + 1) & mask) {
+            if (key.equals(this.keys[slot])) {
+                return this.values[slot];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public AccessTransform getOrDefault(Object key, AccessTransform defaultValue) {
+        AccessTransform value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Set<Entry<K, AccessTransform>> entrySet() {
+        return new AbstractSet<Entry<K, AccessTransform>>() {
+            @Override
+            public int size() {
+                return FrozenTable.this.size;
+            }
+
+            @Override
+            public Iterator<Entry<K, AccessTransform>> iterator() {
+                return new TableIterator();
+            }
+        };
+    }
+
+    private final class TableIterator implements Iterator<Entry<K, AccessTransform>> {
+
+        private int slot = advance(0);
+
+        private int advance(int slot) {
+            while (slot < FrozenTable.this.keys.length && FrozenTable.this.keys[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.slot < FrozenTable.this.keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, AccessTransform> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Entry<K, AccessTransform> entry = new SimpleImmutableEntry<>((K) FrozenTable.this.keys[this.slot], FrozenTable.this.values[this.slot]);
+            this.slot = advance(this.slot + 1);
+            return entry;
+        }
+
+    }
+
+}
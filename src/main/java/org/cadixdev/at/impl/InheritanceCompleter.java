@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+final class InheritanceCompleter {
+
+    private final AbstractAccessTransformSet set;
+    private final InheritanceProvider provider;
+
+    // The method transforms of each class after completion, including classes without an entry in the set
+    private final Map<String, Map<MethodSignature, AccessTransform>> completed = new HashMap<>();
+
+    InheritanceCompleter(AbstractAccessTransformSet set, InheritanceProvider provider) {
+        this.set = set;
+        this.provider = provider;
+    }
+
+    void completeAll() {
+        // Completing may add classes to the set, which are completed anyway
+        for (AccessTransformSet.Class classSet : new ArrayList<>(this.set.classes.values())) {
+            if (classSet.isComplete() || this.completed.containsKey(classSet.getName())) {
+                continue;
+            }
+
+            Optional<InheritanceProvider.ClassInfo> info = classSet.provideInheritance(this.provider, null);
+            if (info.isPresent()) {
+                complete(info.get());
+            }
+        }
+    }
+
+    private Map<MethodSignature, AccessTransform> complete(InheritanceProvider.ClassInfo info) {
+        final String name = info.getName();
+
+        Map<MethodSignature, AccessTransform> methods = this.completed.get(name);
+        if (methods != null) {
+            return methods;
+        }
+
+        AccessTransformSet.Class classSet = this.set.classes.get(name);
+        if (classSet == null || !classSet.isComplete()) {
+            for (InheritanceProvider.ClassInfo parent : info.provideParents(this.provider)) {
+                Map<MethodSignature, AccessTransform> parentMethods = complete(parent);
+                if (parentMethods.isEmpty()) {
+                    continue;
+                }
+
+                for (Map.Entry<MethodSignature, AccessTransform> entry : parentMethods.entrySet()) {
+                    if (info.overrides(entry.getKey(), parent)) {
+                        // Only create classes that actually inherit something
+                        if (classSet == null) {
+                            classSet = this.set.getOrCreateClass(name);
+                        }
+                        classSet.mergeMethod(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+
+            if (classSet != null) {
+                classSet.markComplete();
+            }
+        }
+
+        methods = classSet != null ? classSet.getMethods() : Collections.emptyMap();
+        this.completed.put(name, methods);
+        return methods;
+    }
+
+}
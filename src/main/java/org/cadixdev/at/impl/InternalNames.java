@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+// Compares class names as if '.' were replaced with '/', without creating the replaced string
+final class InternalNames {
+
+    private InternalNames() {
+    }
+
+    static void checkRange(CharSequence name, int start, int end) {
+        if (start < 0 || start > end || end > name.length()) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + name.length());
+        }
+    }
+
+    // Same as name.replace('.', '/').hashCode()
+    static int hash(CharSequence name, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            hash = 31 * hash + (c == '.' ? '/' : c);
+        }
+        return hash;
+    }
+
+    // The internal name must only contain '/' as separator
+    static boolean equals(String internalName, CharSequence name, int start, int end) {
+        if (internalName.length() != end - start) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if ((c == '.' ? '/' : c) != internalName.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
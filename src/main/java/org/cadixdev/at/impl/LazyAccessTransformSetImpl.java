@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.ClassNameFilter;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+// Only knows the names of its classes up front and reads the entries of each class from the loader on first access.
+// Operations on the whole set (getClasses, completeAll, ...) load all remaining classes first.
+public class LazyAccessTransformSetImpl extends AbstractAccessTransformSet {
+
+    public interface Loader {
+        void load(String name, AccessTransformSet.Class classSet) throws IOException;
+    }
+
+    private final Loader loader;
+
+    // Classes that have not been loaded yet
+    private final Set<String> pending;
+
+    public LazyAccessTransformSetImpl(Collection<String> names, Loader loader) {
+        super(new ConcurrentHashMap<>(capacity(names.size())));
+        this.loader = loader;
+        this.pending = ConcurrentHashMap.newKeySet(capacity(names.size()));
+        this.pending.addAll(names);
+    }
+
+    @Override
+    Class createClass(String name) {
+        return new ConcurrentClassAccessTransformSetImpl(this, name);
+    }
+
+    @Override
+    Class lookup(Object key) {
+        // Check pending first: a class is only removed from it after it was added to classes,
+        // so a class that is being loaded by another thread is always found in one of them
+        if (this.pending.contains(key)) {
+            // NameKey.toString() returns the internal name
+            return load(key.toString());
+        }
+        return this.classes.get(key);
+    }
+
+    private Class load(String name) {
+        // Blocks other threads looking up the same class until it is loaded
+        Class classSet = this.classes.computeIfAbsent(name, n -> {
+            Class created = createClass(n);
+            try {
+                this.loader.load(n, created);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return created;
+        });
+
+        this.pending.remove(name);
+        return classSet;
+    }
+
+    private void loadAll() {
+        for (String name : this.pending) {
+            load(name);
+        }
+    }
+
+    @Override
+    public Map<String, Class> getClasses() {
+        loadAll();
+        return super.getClasses();
+    }
+
+    // Does not load the classes, all classes in the index have at least one entry
+    @Override
+    public ClassNameFilter createClassNameFilter() {
+        // Copy the pending names first, since classes are only removed from them after they were loaded
+        List<String> names = new ArrayList<>(this.pending);
+        for (Class classSet : this.classes.values()) {
+            if (BloomClassNameFilter.hasTransforms(classSet)) {
+                names.add(classSet.getName());
+            }
+        }
+        return new BloomClassNameFilter(names);
+    }
+
+    @Override
+    public Optional<Class> removeClass(String name) {
+        Objects.requireNonNull(name, "name");
+
+        // Load the class so it is returned and not loaded again later
+        lookup(key(name));
+        return super.removeClass(name);
+    }
+
+    @Override
+    public void completeAll(InheritanceProvider provider) {
+        loadAll();
+        super.completeAll(provider);
+    }
+
+    @Override
+    public void completeAll(InheritanceProvider provider, ForkJoinPool pool) {
+        loadAll();
+        super.completeAll(provider, pool);
+    }
+
+}
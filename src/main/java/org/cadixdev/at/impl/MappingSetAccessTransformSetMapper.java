@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.Mapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+
+import java.util.Objects;
+
+// Looks up the mappings for each entry, the MappingSet must not be modified while remapping.
+// Remapping in parallel assumes that looking up field and method mappings of an existing
+// ClassMapping only reads from it, class mappings and descriptors are resolved on the calling thread
+final class MappingSetAccessTransformSetMapper extends AccessTransformSetMapper {
+
+    private final MappingSet mappings;
+
+    MappingSetAccessTransformSetMapper(MappingSet mappings) {
+        this.mappings = Objects.requireNonNull(mappings, "mappings");
+    }
+
+    @Override
+    MappedClass getClassMapping(String name) {
+        return this.mappings.getClassMapping(name).map(ClassMappingAdapter::new).orElse(null);
+    }
+
+    @Override
+    MethodDescriptor deobfuscate(MethodDescriptor descriptor) {
+        return this.mappings.deobfuscate(descriptor);
+    }
+
+    private static final class ClassMappingAdapter implements MappedClass {
+
+        private final ClassMapping<?, ?> mapping;
+
+        ClassMappingAdapter(ClassMapping<?, ?> mapping) {
+            this.mapping = mapping;
+        }
+
+        @Override
+        public String getDeobfuscatedName() {
+            return this.mapping.getFullDeobfuscatedName();
+        }
+
+        @Override
+        public String getField(String name) {
+            return this.mapping.getFieldMapping(name).map(Mapping::getDeobfuscatedName).orElse(null);
+        }
+
+        @Override
+        public MethodSignature getMethod(MethodSignature signature) {
+            return this.mapping.getMethodMapping(signature).map(MethodMapping::getDeobfuscatedSignature).orElse(null);
+        }
+
+    }
+
+}
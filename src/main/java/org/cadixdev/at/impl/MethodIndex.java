@@ -0,0 +1,112 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Method signatures keyed by name and descriptor string, so methods can be looked up without parsing the descriptor.
+// Only the signatures are indexed, the transforms stay in the map of the class. The index is built on the first lookup
+// by descriptor string and only changes when a method is added or removed, not when its transform is merged.
+// Overloads of the same name are kept in a short immutable list, which is replaced on every change.
+final class MethodIndex {
+
+    private final Map<String, Entry> entries;
+
+    private MethodIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    static MethodIndex of(Collection<MethodSignature> signatures) {
+        MethodIndex index = new MethodIndex(new HashMap<>(AbstractAccessTransformSet.capacity(signatures.size())));
+        signatures.forEach(index::add);
+        return index;
+    }
+
+    // Changes to different names may happen concurrently, changes to the same method must be synchronized by the caller
+    static MethodIndex ofConcurrent(Collection<MethodSignature> signatures) {
+        MethodIndex index = new MethodIndex(new ConcurrentHashMap<>());
+        signatures.forEach(index::add);
+        return index;
+    }
+
+    // Returns null if the method is not in the index
+    MethodSignature get(String name, String descriptor) {
+        for (Entry entry = this.entries.get(name); entry != null; entry = entry.next) {
+            if (entry.descriptor.equals(descriptor)) {
+                return entry.signature;
+            }
+        }
+        return null;
+    }
+
+    void add(MethodSignature signature) {
+        final String descriptor = signature.getDescriptor().toString();
+        this.entries.compute(signature.getName(), (name, head) -> {
+            for (Entry entry = head; entry != null; entry = entry.next) {
+                if (entry.descriptor.equals(descriptor)) {
+                    return head;
+                }
+            }
+            return new Entry(descriptor, signature, head);
+        });
+    }
+
+    void remove(MethodSignature signature) {
+        final String descriptor = signature.getDescriptor().toString();
+        this.entries.computeIfPresent(signature.getName(), (name, head) -> remove(head, descriptor));
+    }
+
+    private static Entry remove(Entry head, String descriptor) {
+        if (head == null) {
+            return null;
+        }
+        if (head.descriptor.equals(descriptor)) {
+            return head.next;
+        }
+
+        Entry rest = remove(head.next, descriptor);
+        return rest == head.next ? head : new Entry(head.descriptor, head.signature, rest);
+    }
+
+    private static final class Entry {
+
+        final String descriptor;
+        final MethodSignature signature;
+        final Entry next;
+
+        Entry(String descriptor, MethodSignature signature, Entry next) {
+            this.descriptor = descriptor;
+            this.signature = signature;
+            this.next = next;
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+// Open addressing (linear probing) table from long keys to packed transforms, 0 marks a free slot
+final class PackedTransformTable {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] keys;
+    private byte[] values;
+    private int size;
+
+    int size() {
+        return this.size;
+    }
+
+    // Slots are iterated from 0 to capacity(), skipping slots where valueAt() is 0
+    int capacity() {
+        return this.values != null ? this.values.length : 0;
+    }
+
+    long keyAt(int slot) {
+        return this.keys[slot];
+    }
+
+    byte valueAt(int slot) {
+        return this.values[slot];
+    }
+
+    byte get(long key) {
+        if (this.size == 0) {
+            return 0;
+        }
+
+        int mask = this.values.length - 1;
+        for (int slot = slot(key, mask); this.values[slot] != 0; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+        }
+        return 0;
+    }
+
+    byte put(long key, byte value) {
+        if (this.values == null) {
+            this.keys = new long[INITIAL_CAPACITY];
+            this.values = new byte[INITIAL_CAPACITY];
+        } else if ((this.size + 1) * 4 > this.values.length * 3) {
+            resize(this.values.length * 2);
+        }
+
+        int mask = this.values.length - 1;
+        int slot = slot(key, mask);
+        for (; this.values[slot] != 0; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == key) {
+                byte previous = this.values[slot];
+                this.values[slot] = value;
+                return previous;
+            }
+        }
+
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.size++;
+        return 0;
+    }
+
+    byte remove(long key) {
+        if (this.size == 0) {
+            return 0;
+        }
+
+        int mask = this.values.length - 1;
+        int slot = slot(key, mask);
+        for (; this.values[slot] != 0; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == key) {
+                byte previous = this.values[slot];
+                this.size--;
+                shift(slot, mask);
+                return previous;
+            }
+        }
+        return 0;
+    }
+
+    // Moves following entries back into the removed slot, so no tombstones are needed
+    private void shift(int free, int mask) {
+        for (int slot = (free + 1) & mask; this.values[slot] != 0; slot = (slot + 1) & mask) {
+            int home = slot(this.keys[slot], mask);
+            if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                this.keys[free] = this.keys[slot];
+                this.values[free] = this.values[slot];
+                free = slot;
+            }
+        }
+        this.values[free] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        byte[] oldValues = this.values;
+        this.keys = new long[capacity];
+        this.values = new byte[capacity];
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = slot(oldKeys[i], mask);
+                while (this.values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Completes classes as fork-join tasks that wait for the tasks of their parents.
+ *
+ * The set is only read while the tasks are running (so it does not need to be
+ * thread-safe), the inherited method transforms are merged into it afterwards.
+ * The InheritanceProvider must be thread-safe.
+ */
+final class ParallelInheritanceCompleter {
+
+    private final AbstractAccessTransformSet set;
+    private final InheritanceProvider provider;
+
+    private final ConcurrentMap<String, ClassTask> tasks = new ConcurrentHashMap<>();
+
+    ParallelInheritanceCompleter(AbstractAccessTransformSet set, InheritanceProvider provider) {
+        this.set = set;
+        this.provider = provider;
+    }
+
+    void completeAll(ForkJoinPool pool) {
+        List<AccessTransformSet.Class> classes = new ArrayList<>(this.set.classes.values());
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ClassTask> started = new ArrayList<>();
+                for (AccessTransformSet.Class classSet : classes) {
+                    if (classSet.isComplete()) {
+                        continue;
+                    }
+
+                    Optional<InheritanceProvider.ClassInfo> info = classSet.provideInheritance(provider, null);
+                    if (info.isPresent()) {
+                        started.add(schedule(info.get()));
+                    }
+                }
+
+                for (ClassTask task : started) {
+                    task.join();
+                }
+            }
+        });
+
+        for (ClassTask task : this.tasks.values()) {
+            Result result = task.join();
+
+            AccessTransformSet.Class classSet = this.set.classes.get(task.name);
+            if (!result.inherited.isEmpty()) {
+                if (classSet == null) {
+                    classSet = this.set.getOrCreateClass(task.name);
+                }
+                result.inherited.forEach(classSet::mergeMethod);
+            }
+
+            if (classSet != null) {
+                classSet.markComplete();
+            }
+        }
+    }
+
+    private ClassTask schedule(InheritanceProvider.ClassInfo info) {
+        ClassTask task = new ClassTask(info);
+        ClassTask existing = this.tasks.putIfAbsent(task.name, task);
+        if (existing != null) {
+            return existing;
+        }
+
+        task.fork();
+        return task;
+    }
+
+    private static final class Result {
+
+        static final Result EMPTY = new Result(Collections.emptyMap(), Collections.emptyMap());
+
+        // All method transforms of the class after completion
+        final Map<MethodSignature, AccessTransform> methods;
+        // Only the method transforms that need to be merged into the set
+        final Map<MethodSignature, AccessTransform> inherited;
+
+        Result(Map<MethodSignature, AccessTransform> methods, Map<MethodSignature, AccessTransform> inherited) {
+            this.methods = methods;
+            this.inherited = inherited;
+        }
+
+    }
+
+    private final class ClassTask extends RecursiveTask<Result> {
+
+        final String name;
+        private final InheritanceProvider.ClassInfo info;
+
+        ClassTask(InheritanceProvider.ClassInfo info) {
+            this.name = info.getName();
+            this.info = info;
+        }
+
+        @Override
+        protected Result compute() {
+            AccessTransformSet.Class classSet = set.classes.get(this.name);
+            if (classSet != null && classSet.isComplete()) {
+                return new Result(classSet.getMethods(), Collections.emptyMap());
+            }
+
+            List<InheritanceProvider.ClassInfo> parents = this.info.provideParents(provider);
+            List<ClassTask> parentTasks = new ArrayList<>(parents.size());
+            for (InheritanceProvider.ClassInfo parent : parents) {
+                parentTasks.add(schedule(parent));
+            }
+
+            Map<MethodSignature, AccessTransform> methods = null;
+            Map<MethodSignature, AccessTransform> inherited = null;
+
+            for (int i = 0; i < parents.size(); i++) {
+                InheritanceProvider.ClassInfo parent = parents.get(i);
+                Map<MethodSignature, AccessTransform> parentMethods = parentTasks.get(i).join().methods;
+
+                for (Map.Entry<MethodSignature, AccessTransform> entry : parentMethods.entrySet()) {
+                    if (this.info.overrides(entry.getKey(), parent)) {
+                        if (inherited == null) {
+                            methods = classSet != null ? new HashMap<>(classSet.getMethods()) : new HashMap<>();
+                            inherited = new HashMap<>();
+                        }
+                        methods.merge(entry.getKey(), entry.getValue(), AccessTransform::merge);
+                        inherited.merge(entry.getKey(), entry.getValue(), AccessTransform::merge);
+                    }
+                }
+            }
+
+            if (inherited != null) {
+                return new Result(methods, inherited);
+            }
+            return classSet != null ? new Result(classSet.getMethods(), Collections.emptyMap()) : Result.EMPTY;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.impl;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Keeps classes, fields and methods sorted, so sorted output can be written without sorting them first
+public class SortedAccessTransformSetImpl extends AbstractAccessTransformSet {
+
+    // Methods are sorted by name, then by descriptor. The descriptor string is only needed for overloads.
+    public static final Comparator<MethodSignature> METHOD_ORDER = Comparator
+            .comparing(MethodSignature::getName)
+            .thenComparing(signature -> signature.getDescriptor().toString());
+
+    public SortedAccessTransformSetImpl() {
+        super(new TreeMap<>());
+    }
+
+    @Override
+    Class createClass(String name) {
+        return new ClassAccessTransformSetImpl(this, name, new TreeMap<>(), new TreeMap<>(METHOD_ORDER));
+    }
+
+    // A TreeMap can't compare a NameKey with its String keys
+    @Override
+    Class lookup(Object key) {
+        return this.classes.get(key.toString());
+    }
+
+    @Override
+    public Map<String, Class> getClasses() {
+        return Collections.unmodifiableSortedMap((SortedMap<String, Class>) this.classes);
+    }
+
+    @Override
+    public Optional<Class> removeClass(String name) {
+        Objects.requireNonNull(name, "name");
+        return Optional.ofNullable(this.classes.remove(name.replace('.', '/')));
+    }
+
+}
@@ -24,7 +24,9 @@
 
 package org.cadixdev.at.io;
 
+import org.cadixdev.at.AccessTransform;
 import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.type.signature.MethodSignature;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -32,10 +34,17 @@
 import java.io.Reader;
 import java.io.Writer;
 
-public abstract class AbstractAccessTransformFormat implements AccessTransformFormat {
+public abstract class AbstractAccessTransformFormat implements StreamingAccessTransformFormat {
 
     protected abstract void read(BufferedReader reader, AccessTransformSet set) throws IOException;
 
+    // Formats that can pass each entry to the visitor as it is read override this
+    protected void read(BufferedReader reader, AccessTransformVisitor visitor) throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        read(reader, set);
+        AccessTransformVisitor.visit(set, visitor);
+    }
+
     @Override
     public void read(Reader reader, AccessTransformSet set) throws IOException {
         if (reader instanceof BufferedReader) {
@@ -45,8 +54,23 @@ public void read(Reader reader, AccessTransformSet set) throws IOException {
         }
     }
 
+    @Override
+    public void read(Reader reader, AccessTransformVisitor visitor) throws IOException {
+        if (reader instanceof BufferedReader) {
+            read((BufferedReader) reader, visitor);
+        } else {
+            read(new BufferedReader(reader), visitor);
+        }
+    }
+
     protected abstract void write(BufferedWriter writer, AccessTransformSet set) throws IOException;
 
+    // Formats that can write each entry as it is visited override this,
+    // by default the entries are collected and written with write(BufferedWriter, AccessTransformSet) when flushed
+    protected AccessTransformWriter createWriter(BufferedWriter writer) throws IOException {
+        return new SetWriter(writer);
+    }
+
     @Override
     public void write(Writer writer, AccessTransformSet set) throws IOException {
         if (writer instanceof BufferedWriter) {
@@ -56,4 +80,61 @@ public void write(Writer writer, AccessTransformSet set) throws IOException {
         }
     }
 
+    @Override
+    public AccessTransformWriter createWriter(Writer writer) throws IOException {
+        if (writer instanceof BufferedWriter) {
+            return createWriter((BufferedWriter) writer);
+        } else {
+            return createWriter(new BufferedWriter(writer));
+        }
+    }
+
+    private final class SetWriter implements AccessTransformWriter {
+
+        private final BufferedWriter writer;
+        private AccessTransformSet set = AccessTransformSet.create();
+        private AccessTransformVisitor builder = AccessTransformVisitor.of(this.set);
+
+        SetWriter(BufferedWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void visitClass(String className, AccessTransform transform) throws IOException {
+            this.builder.visitClass(className, transform);
+        }
+
+        @Override
+        public void visitAllFields(String className, AccessTransform transform) throws IOException {
+            this.builder.visitAllFields(className, transform);
+        }
+
+        @Override
+        public void visitField(String className, String name, AccessTransform transform) throws IOException {
+            this.builder.visitField(className, name, transform);
+        }
+
+        @Override
+        public void visitAllMethods(String className, AccessTransform transform) throws IOException {
+            this.builder.visitAllMethods(className, transform);
+        }
+
+        @Override
+        public void visitMethod(String className, MethodSignature signature, AccessTransform transform) throws IOException {
+            this.builder.visitMethod(className, signature, transform);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Entries are only written once, even if flushed again
+            if (!this.set.getClasses().isEmpty()) {
+                write(this.writer, this.set);
+                this.set = AccessTransformSet.create();
+                this.builder = AccessTransformVisitor.of(this.set);
+            }
+            this.writer.flush();
+        }
+
+    }
+
 }
@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io;
+
+import org.cadixdev.at.AccessTransformFingerprint;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Stores completed access transform sets in a directory, so the inheritance
+ * only needs to be resolved again when the access transformers or classes change.
+ *
+ * Each file is keyed on the fingerprint of the set before completion and a
+ * hash of the contents of the class path the InheritanceProvider reads its
+ * classes from. Hashing the contents is expensive, so a second, small file
+ * maps the size and modification time of the class path files to that hash.
+ * The contents are only hashed again when one of those changes.
+ */
+public final class AccessTransformCompletionCache {
+
+    private static final String EXTENSION = ".bin";
+    private static final String STAMP_EXTENSION = ".stamp";
+
+    private final Path directory;
+
+    public AccessTransformCompletionCache(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    // Returns the completed set: either read from the cache, with all classes marked complete,
+    // or the given set after completing it with the provider.
+    //
+    // The cache can't see which classes the provider reads. The classpath must contain every jar and
+    // directory the provider loads classes from (and the provider nothing else), otherwise a stale set
+    // is returned when those classes change. Files are assumed to be unchanged while their size and
+    // modification time are the same.
+    public AccessTransformSet complete(AccessTransformSet set, InheritanceProvider provider, Collection<Path> classpath) throws IOException {
+        Objects.requireNonNull(set, "set");
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(classpath, "classpath");
+
+        String fingerprint = AccessTransformFingerprint.of(set).toString();
+        Path stampFile = this.directory.resolve(fingerprint + '-' + stamp(classpath) + STAMP_EXTENSION);
+        String contents = readStamp(stampFile);
+        if (contents != null) {
+            AccessTransformSet cached = read(this.directory.resolve(fingerprint + '-' + contents + EXTENSION));
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // The files may only have been touched, so check for a set completed with the same contents
+        String hash = hash(classpath);
+        Path file = this.directory.resolve(fingerprint + '-' + hash + EXTENSION);
+        AccessTransformSet completed = read(file);
+        if (completed == null) {
+            set.completeAll(provider);
+            write(file, path -> ByteAccessTransformFormats.BINARY.write(path, set));
+            completed = set;
+        }
+
+        write(stampFile, path -> Files.write(path, hash.getBytes(StandardCharsets.US_ASCII)));
+        return completed;
+    }
+
+    private static AccessTransformSet read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        AccessTransformSet set = AccessTransformSet.create();
+        try {
+            ByteAccessTransformFormats.BINARY.read(file, set);
+        } catch (IOException | RuntimeException e) {
+            // Corrupt or outdated file (e.g. an invalid descriptor), complete the set again
+            return null;
+        }
+
+        for (AccessTransformSet.Class classSet : set.getClasses().values()) {
+            classSet.markComplete();
+        }
+        return set;
+    }
+
+    // Returns the content hash the stamp file points to, or null
+    private static String readStamp(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        String hash;
+        try {
+            hash = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            return null;
+        }
+        return hash.length() == 64 && hash.chars().allMatch(c -> Character.digit(c, 16) >= 0) ? hash : null;
+    }
+
+    private void write(Path file, FileWriter writer) throws IOException {
+        Files.createDirectories(this.directory);
+
+        // Write to a temporary file first, so other processes never read a partially written file
+        Path temp = Files.createTempFile(this.directory, file.getFileName().toString(), ".tmp");
+        try {
+            writer.write(temp);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Hash of the paths, sizes and modification times of the class path files, which does not read them
+    private static String stamp(Collection<Path> classpath) throws IOException {
+        MessageDigest digest = sha256();
+        for (Path path : classpath) {
+            digest.update(path.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8));
+            for (Path file : files(path)) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                digest.update(file.toString().getBytes(StandardCharsets.UTF_8));
+                update(digest, attributes.size());
+                update(digest, attributes.lastModifiedTime().toMillis());
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    // Hash of the contents of the class path files
+    private static String hash(Collection<Path> classpath) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[8192];
+        for (Path path : classpath) {
+            for (Path file : files(path)) {
+                if (file != path) {
+                    digest.update(path.relativize(file).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+                }
+                hash(digest, file, buffer);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    // Returns the path itself, or all files in it if it is a directory
+    private static List<Path> files(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return Collections.singletonList(path);
+        }
+
+        // Sort the files so the hash does not depend on the order of the file system
+        try (Stream<Path> stream = Files.walk(path)) {
+            return stream.filter(Files::isRegularFile).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is supported by every JVM", e);
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >>> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    private static void update(MessageDigest digest, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (value >>> shift));
+        }
+    }
+
+    private static void hash(MessageDigest digest, Path file, byte[] buffer) throws IOException {
+        long size = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+                size += count;
+            }
+        }
+
+        // Separate the contents of consecutive files
+        update(digest, size);
+    }
+
+    private interface FileWriter {
+
+        void write(Path path) throws IOException;
+
+    }
+
+}
@@ -33,6 +33,8 @@
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
 
 public interface AccessTransformFormat {
 
@@ -42,6 +44,12 @@ default AccessTransformSet read(Reader reader) throws IOException {
         return set;
     }
     void read(Reader reader, AccessTransformSet set) throws IOException;
+    // Formats that can pass each entry to the visitor as it is read override this
+    default void read(Reader reader, AccessTransformVisitor visitor) throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        read(reader, set);
+        AccessTransformVisitor.visit(set, visitor);
+    }
 
     default AccessTransformSet read(Path path) throws IOException {
         AccessTransformSet set = AccessTransformSet.create();
@@ -53,6 +61,38 @@ default void read(Path path, AccessTransformSet set) throws IOException {
             read(reader, set);
         }
     }
+    default void read(Path path, AccessTransformVisitor visitor) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            read(reader, visitor);
+        }
+    }
+
+    default AccessTransformSet readAll(Collection<Path> paths) throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        readAll(paths, set);
+        return set;
+    }
+    default void readAll(Collection<Path> paths, AccessTransformSet set) throws IOException {
+        ParallelReadTask.read(paths, set, this::read);
+    }
+
+    // Returns a set that reads the entries of each class only when it is first accessed.
+    // Formats that cannot be read per class read all entries immediately.
+    default AccessTransformSet readLazy(Path path) throws IOException {
+        return readAllLazy(Collections.singletonList(path));
+    }
+    default AccessTransformSet readAllLazy(Collection<Path> paths) throws IOException {
+        return readAll(paths);
+    }
+
+    default AccessTransformSet readAllReaders(Collection<? extends Reader> readers) throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        readAllReaders(readers, set);
+        return set;
+    }
+    default void readAllReaders(Collection<? extends Reader> readers, AccessTransformSet set) throws IOException {
+        ParallelReadTask.<Reader>read(readers, set, this::read);
+    }
 
     void write(Writer writer, AccessTransformSet set) throws IOException;
 
@@ -28,7 +28,9 @@
 
 public final class AccessTransformFormats {
 
+    // Both are StreamingAccessTransformFormats
     public static AccessTransformFormat FML = new FmlAccessTransformFormat();
+    public static AccessTransformFormat FML_SORTED = new FmlAccessTransformFormat(true);
 
     private AccessTransformFormats() {
     }
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Objects;
+
+final class AccessTransformSetBuilder implements AccessTransformVisitor {
+
+    private final AccessTransformSet set;
+
+    private String lastClassName;
+    private AccessTransformSet.Class lastClass;
+
+    AccessTransformSetBuilder(AccessTransformSet set) {
+        this.set = Objects.requireNonNull(set, "set");
+    }
+
+    private AccessTransformSet.Class getClass(String className) {
+        // Entries for the same class are usually grouped together
+        if (!className.equals(this.lastClassName)) {
+            this.lastClass = this.set.getOrCreateClass(className);
+            this.lastClassName = className;
+        }
+        return this.lastClass;
+    }
+
+    @Override
+    public void visitClass(String className, AccessTransform transform) {
+        getClass(className).merge(transform);
+    }
+
+    @Override
+    public void visitAllFields(String className, AccessTransform transform) {
+        getClass(className).mergeAllFields(transform);
+    }
+
+    @Override
+    public void visitField(String className, String name, AccessTransform transform) {
+        getClass(className).mergeField(name, transform);
+    }
+
+    @Override
+    public void visitAllMethods(String className, AccessTransform transform) {
+        getClass(className).mergeAllMethods(transform);
+    }
+
+    @Override
+    public void visitMethod(String className, MethodSignature signature, AccessTransform transform) {
+        getClass(className).mergeMethod(signature, transform);
+    }
+
+}
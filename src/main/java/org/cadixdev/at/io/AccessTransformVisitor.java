@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Class names are always passed as internal names (e.g. java/lang/Object)
+public interface AccessTransformVisitor {
+
+    default void visitClass(String className, AccessTransform transform) throws IOException {
+    }
+
+    default void visitAllFields(String className, AccessTransform transform) throws IOException {
+    }
+
+    default void visitField(String className, String name, AccessTransform transform) throws IOException {
+    }
+
+    default void visitAllMethods(String className, AccessTransform transform) throws IOException {
+    }
+
+    default void visitMethod(String className, MethodSignature signature, AccessTransform transform) throws IOException {
+    }
+
+    static AccessTransformVisitor of(AccessTransformSet set) {
+        return new AccessTransformSetBuilder(set);
+    }
+
+    static void visit(AccessTransformSet set, AccessTransformVisitor visitor) throws IOException {
+        for (AccessTransformSet.Class classSet : set.getClasses().values()) {
+            final String className = classSet.getName();
+
+            visitor.visitClass(className, classSet.get());
+
+            if (!classSet.allFields().isEmpty()) {
+                visitor.visitAllFields(className, classSet.allFields());
+            }
+            for (Map.Entry<String, AccessTransform> entry : classSet.getFields().entrySet()) {
+                visitor.visitField(className, entry.getKey(), entry.getValue());
+            }
+
+            if (!classSet.allMethods().isEmpty()) {
+                visitor.visitAllMethods(className, classSet.allMethods());
+            }
+            for (Map.Entry<MethodSignature, AccessTransform> entry : classSet.getMethods().entrySet()) {
+                visitor.visitMethod(className, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // Same as visit, but in a deterministic order that does not depend on the set implementation
+    static void visitSorted(AccessTransformSet set, AccessTransformVisitor visitor) throws IOException {
+        SortedAccessTransformVisit.visit(set, visitor);
+    }
+
+}
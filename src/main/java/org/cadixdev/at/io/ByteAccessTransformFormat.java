@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io;
+
+import org.cadixdev.at.AccessTransformSet;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// A format that is stored as bytes instead of characters, e.g. a binary cache
+public interface ByteAccessTransformFormat {
+
+    default AccessTransformSet read(ByteBuffer buffer) throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        read(buffer, set);
+        return set;
+    }
+    default void read(ByteBuffer buffer, AccessTransformSet set) throws IOException {
+        read(buffer, AccessTransformVisitor.of(set));
+    }
+    void read(ByteBuffer buffer, AccessTransformVisitor visitor) throws IOException;
+
+    default AccessTransformSet read(InputStream in) throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        read(in, set);
+        return set;
+    }
+    default void read(InputStream in, AccessTransformSet set) throws IOException {
+        read(in, AccessTransformVisitor.of(set));
+    }
+    void read(InputStream in, AccessTransformVisitor visitor) throws IOException;
+
+    default AccessTransformSet read(Path path) throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        read(path, set);
+        return set;
+    }
+    default void read(Path path, AccessTransformSet set) throws IOException {
+        read(path, AccessTransformVisitor.of(set));
+    }
+    default void read(Path path, AccessTransformVisitor visitor) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            read(in, visitor);
+        }
+    }
+
+    void write(OutputStream out, AccessTransformSet set) throws IOException;
+
+    default void write(Path path, AccessTransformSet set) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(out, set);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io;
+
+import org.cadixdev.at.AccessTransformSet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+final class ParallelReadTask<T> extends RecursiveTask<AccessTransformSet> {
+
+    private final Source<T> source;
+    private final List<T> inputs;
+    private final int from;
+    private final int to;
+
+    private ParallelReadTask(Source<T> source, List<T> inputs, int from, int to) {
+        this.source = source;
+        this.inputs = inputs;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected AccessTransformSet compute() {
+        if (this.to - this.from == 1) {
+            AccessTransformSet set = AccessTransformSet.create();
+            try {
+                this.source.read(this.inputs.get(this.from), set);
+            } catch (IOException | RuntimeException e) {
+                throw new ReadException(e);
+            }
+            return set;
+        }
+
+        int middle = (this.from + this.to) >>> 1;
+        ParallelReadTask<T> left = new ParallelReadTask<>(this.source, this.inputs, this.from, middle);
+        left.fork();
+
+        AccessTransformSet right;
+        try {
+            right = new ParallelReadTask<>(this.source, this.inputs, middle, this.to).compute();
+        } catch (ReadException e) {
+            // Report the error of the first input that failed, just like reading sequentially
+            left.join();
+            throw e;
+        }
+
+        // Always merge left to right so the result does not depend on scheduling
+        AccessTransformSet result = left.join();
+        result.merge(right);
+        return result;
+    }
+
+    static <T> void read(Collection<? extends T> inputs, AccessTransformSet set, Source<T> source) throws IOException {
+        if (inputs.isEmpty()) {
+            return;
+        }
+
+        List<T> list = new ArrayList<>(inputs);
+        try {
+            set.merge(ForkJoinPool.commonPool().invoke(new ParallelReadTask<>(source, list, 0, list.size())));
+        } catch (ReadException e) {
+            Exception cause = (Exception) e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    @FunctionalInterface
+    interface Source<T> {
+
+        void read(T input, AccessTransformSet set) throws IOException;
+
+    }
+
+    private static final class ReadException extends RuntimeException {
+
+        // Intentionally not public, this prevents ForkJoinTask from wrapping the exception again
+        ReadException(Exception cause) {
+            super(cause);
+        }
+
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.impl.SortedAccessTransformSetImpl;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+
+// Visits the classes sorted by name, with the fields and methods of each class merged into one stream sorted by name.
+// Maps that are already sorted in this order (e.g. from AccessTransformSet.createSorted()) are streamed as they are,
+// others have their keys copied and sorted first.
+final class SortedAccessTransformVisit {
+
+    private SortedAccessTransformVisit() {
+    }
+
+    static void visit(AccessTransformSet set, AccessTransformVisitor visitor) throws IOException {
+        Map<String, AccessTransformSet.Class> classes = set.getClasses();
+        Iterator<String> classNames = isSorted(classes, null) ? classes.keySet().iterator() : sortedNames(classes);
+
+        while (classNames.hasNext()) {
+            String className = classNames.next();
+            AccessTransformSet.Class classSet = classes.get(className);
+            visitor.visitClass(className, classSet.get());
+
+            if (!classSet.allFields().isEmpty()) {
+                visitor.visitAllFields(className, classSet.allFields());
+            }
+            if (!classSet.allMethods().isEmpty()) {
+                visitor.visitAllMethods(className, classSet.allMethods());
+            }
+
+            Map<String, AccessTransform> fields = classSet.getFields();
+            Iterator<String> fieldNames = isSorted(fields, null) ? fields.keySet().iterator() : sortedNames(fields);
+            Map<MethodSignature, AccessTransform> methods = classSet.getMethods();
+            Iterator<MethodSignature> signatures = isSorted(methods, SortedAccessTransformSetImpl.METHOD_ORDER)
+                    ? methods.keySet().iterator()
+                    : sortedSignatures(methods);
+
+            // Merge both sorted streams, fields come first if a method has the same name
+            String field = fieldNames.hasNext() ? fieldNames.next() : null;
+            MethodSignature method = signatures.hasNext() ? signatures.next() : null;
+            while (field != null || method != null) {
+                if (method == null || (field != null && field.compareTo(method.getName()) <= 0)) {
+                    visitor.visitField(className, field, fields.get(field));
+                    field = fieldNames.hasNext() ? fieldNames.next() : null;
+                } else {
+                    visitor.visitMethod(className, method, methods.get(method));
+                    method = signatures.hasNext() ? signatures.next() : null;
+                }
+            }
+        }
+    }
+
+    // A null comparator is the natural order
+    private static boolean isSorted(Map<?, ?> map, Comparator<?> comparator) {
+        return map instanceof SortedMap && ((SortedMap<?, ?>) map).comparator() == comparator;
+    }
+
+    private static Iterator<String> sortedNames(Map<String, ?> map) {
+        String[] names = map.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        return Arrays.asList(names).iterator();
+    }
+
+    private static Iterator<MethodSignature> sortedSignatures(Map<MethodSignature, ?> methods) {
+        SortedMethod[] sorted = new SortedMethod[methods.size()];
+        int i = 0;
+        for (MethodSignature signature : methods.keySet()) {
+            sorted[i++] = new SortedMethod(signature);
+        }
+        Arrays.sort(sorted);
+
+        MethodSignature[] signatures = new MethodSignature[sorted.length];
+        for (i = 0; i < sorted.length; i++) {
+            signatures[i] = sorted[i].signature;
+        }
+        return Arrays.asList(signatures).iterator();
+    }
+
+    // Same order as SortedAccessTransformSetImpl.METHOD_ORDER, but creates the descriptor string only once and only for overloaded names
+    private static final class SortedMethod implements Comparable<SortedMethod> {
+
+        final MethodSignature signature;
+        final String name;
+        private String descriptor;
+
+        SortedMethod(MethodSignature signature) {
+            this.signature = signature;
+            this.name = signature.getName();
+        }
+
+        private String descriptor() {
+            if (this.descriptor == null) {
+                this.descriptor = this.signature.getDescriptor().toString();
+            }
+            return this.descriptor;
+        }
+
+        @Override
+        public int compareTo(SortedMethod other) {
+            int result = this.name.compareTo(other.name);
+            return result != 0 ? result : descriptor().compareTo(other.descriptor());
+        }
+
+    }
+
+}
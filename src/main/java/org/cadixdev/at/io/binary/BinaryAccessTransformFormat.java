@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.binary;
+
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.io.AccessTransformVisitor;
+import org.cadixdev.at.io.ByteAccessTransformFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class BinaryAccessTransformFormat implements ByteAccessTransformFormat {
+
+    @Override
+    public void read(ByteBuffer buffer, AccessTransformVisitor visitor) throws IOException {
+        new BinaryReader(buffer).read(visitor);
+    }
+
+    @Override
+    public void read(InputStream in, AccessTransformVisitor visitor) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        read(ByteBuffer.wrap(out.toByteArray()), visitor);
+    }
+
+    @Override
+    public void read(Path path, AccessTransformVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                // Too large to be mapped at once, and the reader (like read(InputStream)) needs a single buffer
+                throw new IOException("File too large: " + path);
+            }
+
+            read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), visitor);
+        }
+    }
+
+    @Override
+    public void write(OutputStream out, AccessTransformSet set) throws IOException {
+        new BinaryWriter(out).write(set);
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.binary;
+
+import org.cadixdev.at.AccessChange;
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.ModifierChange;
+
+import java.io.IOException;
+
+/*
+ * Layout (big endian):
+ *
+ *   int magic, int version
+ *   int stringCount, { int length, byte[length] utf8 } * stringCount
+ *   int classCount, {
+ *     int name, byte transform, byte allFields, byte allMethods,
+ *     int fieldCount, int methodCount,
+ *     { int name, byte transform } * fieldCount,
+ *     { int name, int descriptor, byte transform } * methodCount
+ *   } * classCount
+ *
+ * Names and descriptors are indexes into the string table.
+ * Each transform is packed into a single byte: the access change in the
+ * lower 4 bits and the final change in the 2 bits above.
+ */
+final class BinaryFormat {
+
+    static final int MAGIC = 0x41544246; // ATBF
+    static final int VERSION = 1;
+
+    private static final AccessChange[] ACCESS_CHANGES = AccessChange.values();
+    private static final ModifierChange[] FINAL_CHANGES = ModifierChange.values();
+
+    private static final int ACCESS_MASK = 0xF;
+    private static final int FINAL_SHIFT = 4;
+    private static final int FINAL_MASK = 0x3;
+
+    static byte pack(AccessTransform transform) {
+        return (byte) (transform.getAccess().ordinal() | transform.getFinal().ordinal() << FINAL_SHIFT);
+    }
+
+    static AccessTransform unpack(byte packed) throws IOException {
+        int access = packed & ACCESS_MASK;
+        int finalChange = (packed >>> FINAL_SHIFT) & FINAL_MASK;
+        if (access >= ACCESS_CHANGES.length || finalChange >= FINAL_CHANGES.length || (packed & 0xC0) != 0) {
+            throw new IOException("Invalid packed access transform: 0x" + Integer.toHexString(packed & 0xFF));
+        }
+        return AccessTransform.of(ACCESS_CHANGES[access], FINAL_CHANGES[finalChange]);
+    }
+
+    private BinaryFormat() {
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.binary;
+
+import static org.cadixdev.at.io.binary.BinaryFormat.unpack;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.io.AccessTransformVisitor;
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+
+final class BinaryReader {
+
+    private final ByteBuffer buffer;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+
+    private int[] stringStarts;
+    private int[] stringEnds;
+    private String[] strings;
+    private MethodDescriptor[] descriptors;
+
+    BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+    }
+
+    void read(AccessTransformVisitor visitor) throws IOException {
+        try {
+            if (this.buffer.getInt() != BinaryFormat.MAGIC) {
+                throw new IOException("Not a binary access transformer file");
+            }
+            int version = this.buffer.getInt();
+            if (version != BinaryFormat.VERSION) {
+                throw new IOException("Unsupported binary access transformer version: " + version);
+            }
+
+            readStringTable();
+
+            int classCount = readCount();
+            for (int i = 0; i < classCount; i++) {
+                String className = readString();
+
+                // Always visited, so that empty class entries are preserved
+                visitor.visitClass(className, unpack(this.buffer.get()));
+
+                AccessTransform allFields = unpack(this.buffer.get());
+                if (!allFields.isEmpty()) {
+                    visitor.visitAllFields(className, allFields);
+                }
+                AccessTransform allMethods = unpack(this.buffer.get());
+                if (!allMethods.isEmpty()) {
+                    visitor.visitAllMethods(className, allMethods);
+                }
+
+                int fieldCount = readCount();
+                int methodCount = readCount();
+
+                for (int j = 0; j < fieldCount; j++) {
+                    visitor.visitField(className, readString(), unpack(this.buffer.get()));
+                }
+
+                for (int j = 0; j < methodCount; j++) {
+                    String name = readString();
+                    MethodDescriptor descriptor = readDescriptor();
+                    visitor.visitMethod(className, new MethodSignature(name, descriptor), unpack(this.buffer.get()));
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary access transformer file", e);
+        }
+    }
+
+    private void readStringTable() throws IOException {
+        int count = readCount();
+        // Each string has at least its length, so larger counts can only come from a corrupt file
+        if (count > this.buffer.remaining() / 4) {
+            throw new IOException("Invalid string count: " + count);
+        }
+        this.stringStarts = new int[count];
+        this.stringEnds = new int[count];
+        this.strings = new String[count];
+        this.descriptors = new MethodDescriptor[count];
+
+        // Only record where the strings are, they are decoded when first used
+        for (int i = 0; i < count; i++) {
+            int length = readCount();
+            int start = this.buffer.position();
+            if (length > this.buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+
+            this.stringStarts[i] = start;
+            this.stringEnds[i] = start + length;
+            ((Buffer) this.buffer).position(start + length);
+        }
+    }
+
+    private int readCount() throws IOException {
+        int count = this.buffer.getInt();
+        if (count < 0) {
+            throw new IOException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    private int readStringIndex() throws IOException {
+        int index = this.buffer.getInt();
+        if (index < 0 || index >= this.strings.length) {
+            throw new IOException("Invalid string index: " + index);
+        }
+        return index;
+    }
+
+    private String readString() throws IOException {
+        return getString(readStringIndex());
+    }
+
+    private String getString(int index) throws IOException {
+        String s = this.strings[index];
+        if (s == null) {
+            ByteBuffer slice = this.buffer.duplicate();
+            ((Buffer) slice).limit(this.stringEnds[index]);
+            ((Buffer) slice).position(this.stringStarts[index]);
+            s = this.strings[index] = this.decoder.decode(slice).toString();
+        }
+        return s;
+    }
+
+    private MethodDescriptor readDescriptor() throws IOException {
+        int index = readStringIndex();
+        MethodDescriptor descriptor = this.descriptors[index];
+        if (descriptor == null) {
+            descriptor = this.descriptors[index] = MethodDescriptor.of(getString(index));
+        }
+        return descriptor;
+    }
+
+}
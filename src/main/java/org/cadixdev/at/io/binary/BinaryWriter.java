@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.binary;
+
+import static org.cadixdev.at.io.binary.BinaryFormat.pack;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class BinaryWriter {
+
+    private final DataOutputStream out;
+
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    BinaryWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    void write(AccessTransformSet set) throws IOException {
+        Collection<AccessTransformSet.Class> classes = set.getClasses().values();
+
+        for (AccessTransformSet.Class classSet : classes) {
+            intern(classSet.getName());
+            classSet.getFields().keySet().forEach(this::intern);
+            for (MethodSignature signature : classSet.getMethods().keySet()) {
+                intern(signature.getName());
+                intern(signature.getDescriptor().toString());
+            }
+        }
+
+        this.out.writeInt(BinaryFormat.MAGIC);
+        this.out.writeInt(BinaryFormat.VERSION);
+
+        this.out.writeInt(this.strings.size());
+        for (String s : this.strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            this.out.writeInt(bytes.length);
+            this.out.write(bytes);
+        }
+
+        this.out.writeInt(classes.size());
+        for (AccessTransformSet.Class classSet : classes) {
+            Map<String, AccessTransform> fields = classSet.getFields();
+            Map<MethodSignature, AccessTransform> methods = classSet.getMethods();
+
+            this.out.writeInt(this.stringIndexes.get(classSet.getName()));
+            this.out.writeByte(pack(classSet.get()));
+            this.out.writeByte(pack(classSet.allFields()));
+            this.out.writeByte(pack(classSet.allMethods()));
+            this.out.writeInt(fields.size());
+            this.out.writeInt(methods.size());
+
+            for (Map.Entry<String, AccessTransform> entry : fields.entrySet()) {
+                this.out.writeInt(this.stringIndexes.get(entry.getKey()));
+                this.out.writeByte(pack(entry.getValue()));
+            }
+
+            for (Map.Entry<MethodSignature, AccessTransform> entry : methods.entrySet()) {
+                MethodSignature signature = entry.getKey();
+                this.out.writeInt(this.stringIndexes.get(signature.getName()));
+                this.out.writeInt(this.stringIndexes.get(signature.getDescriptor().toString()));
+                this.out.writeByte(pack(entry.getValue()));
+            }
+        }
+
+        this.out.flush();
+    }
+
+    private void intern(String s) {
+        this.stringIndexes.computeIfAbsent(s, key -> {
+            this.strings.add(key);
+            return this.strings.size() - 1;
+        });
+    }
+
+}
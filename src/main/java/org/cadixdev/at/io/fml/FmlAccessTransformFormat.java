@@ -26,21 +26,94 @@
 
 import org.cadixdev.at.AccessTransformSet;
 import org.cadixdev.at.io.AbstractAccessTransformFormat;
+import org.cadixdev.at.io.AccessTransformVisitor;
+import org.cadixdev.at.io.AccessTransformWriter;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
 
 public class FmlAccessTransformFormat extends AbstractAccessTransformFormat {
 
+    private final boolean sorted;
+
+    public FmlAccessTransformFormat() {
+        this(false);
+    }
+
+    // Writes classes and their members sorted by name, so the output only depends on the contents of the set
+    public FmlAccessTransformFormat(boolean sorted) {
+        this.sorted = sorted;
+    }
+
+    @Override
+    protected void read(BufferedReader reader, AccessTransformSet set) throws IOException {
+        read(reader, AccessTransformVisitor.of(set));
+    }
+
+    @Override
+    public void read(BufferedReader reader, AccessTransformVisitor visitor) throws IOException {
+        FmlReader.read(reader, visitor);
+    }
+
+    @Override
+    public void read(Path path, AccessTransformSet set) throws IOException {
+        read(path, AccessTransformVisitor.of(set));
+    }
+
+    @Override
+    public void read(Path path, AccessTransformVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= Integer.MAX_VALUE) {
+                FmlBufferReader.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), visitor);
+                return;
+            }
+        }
+
+        // Too large to be mapped at once
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            read(reader, visitor);
+        }
+    }
+
+    @Override
+    public AccessTransformSet readAllLazy(Collection<Path> paths) throws IOException {
+        FmlIndex index = new FmlIndex();
+        for (Path path : paths) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    // Too large to be mapped at once
+                    return readAll(paths);
+                }
+
+                // The mapping stays valid after the channel is closed
+                index.add(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+        }
+        return index.createSet();
+    }
+
     @Override
-    public void read(BufferedReader reader, AccessTransformSet set) throws IOException {
-        FmlReader.read(reader, set);
+    public AccessTransformWriter createWriter(BufferedWriter writer) {
+        return new FmlWriter(writer);
     }
 
     @Override
-    public void write(BufferedWriter writer, AccessTransformSet set) throws IOException {
-        new FmlWriter(writer).write(set);
+    protected void write(BufferedWriter writer, AccessTransformSet set) throws IOException {
+        AccessTransformWriter transformWriter = createWriter(writer);
+        if (this.sorted) {
+            AccessTransformVisitor.visitSorted(set, transformWriter);
+        } else {
+            AccessTransformVisitor.visit(set, transformWriter);
+        }
+        transformWriter.flush();
     }
 
 }
@@ -0,0 +1,317 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.fml;
+
+import org.cadixdev.at.AccessChange;
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.ModifierChange;
+import org.cadixdev.at.io.AccessTransformVisitor;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+
+final class FmlBufferReader {
+
+    private static final byte COMMENT_PREFIX = '#';
+    private static final byte WILDCARD = '*';
+    private static final byte METHOD_START = '(';
+
+    private static final byte[] PUBLIC = ascii("public");
+    private static final byte[] PROTECTED = ascii("protected");
+    private static final byte[] DEFAULT = ascii("default");
+    private static final byte[] PRIVATE = ascii("private");
+
+    private final ByteBuffer buffer;
+    private final AccessTransformVisitor visitor;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private char[] chars = new char[64];
+
+    private int lastClassStart = -1;
+    private int lastClassEnd = -1;
+    private String lastClassName;
+
+    FmlBufferReader(ByteBuffer buffer, AccessTransformVisitor visitor) {
+        this.buffer = buffer;
+        this.visitor = visitor;
+    }
+
+    static void read(ByteBuffer buffer, AccessTransformVisitor visitor) throws IOException {
+        new FmlBufferReader(buffer, visitor).read();
+    }
+
+    private void read() throws IOException {
+        final int limit = this.buffer.limit();
+
+        int pos = this.buffer.position();
+        while (pos < limit) {
+            pos = readLine(pos) + 1;
+        }
+    }
+
+    // Reads the line starting at the given position and returns its end
+    int readLine(int pos) throws IOException {
+        final int limit = this.buffer.limit();
+
+        boolean ascii = true;
+
+        int end = pos;
+        byte b;
+        while (end < limit && (b = this.buffer.get(end)) != '\n' && b != '\r') {
+            if (b < 0) {
+                ascii = false;
+            }
+            end++;
+        }
+
+        if (!ascii) {
+            // Match BufferedReader, which rejects malformed input anywhere in the line
+            decode(pos, end);
+        }
+
+        readLine(pos, end);
+        return end;
+    }
+
+    // Only reads the class names, and passes the start of each line with an entry to the consumer
+    void index(LineConsumer consumer) throws IOException {
+        final int limit = this.buffer.limit();
+
+        int pos = this.buffer.position();
+        while (pos < limit) {
+            int end = pos;
+            byte b;
+            while (end < limit && (b = this.buffer.get(end)) != '\n' && b != '\r') {
+                end++;
+            }
+
+            int commentStart = indexOf(pos, end, COMMENT_PREFIX);
+            int start = skipWhitespace(pos, commentStart);
+            if (start < commentStart) {
+                int classStart = skipWhitespace(skipToken(start, commentStart), commentStart);
+                int classEnd = skipToken(classStart, commentStart);
+                if (classStart == classEnd) {
+                    throw new IllegalArgumentException("Invalid FML access transformer line: " + decode(start, commentStart).trim());
+                }
+
+                // The rest of the line is validated when the class is loaded
+                consumer.accept(getClassName(classStart, classEnd), pos);
+            }
+
+            pos = end + 1;
+        }
+    }
+
+    interface LineConsumer {
+        void accept(String className, int pos);
+    }
+
+    private void readLine(int start, int end) throws IOException {
+        end = indexOf(start, end, COMMENT_PREFIX);
+
+        // Same as String.trim()
+        while (start < end && (this.buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (start < end && (this.buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+
+        final int accessEnd = skipToken(start, end);
+        final int classStart = skipWhitespace(accessEnd, end);
+        final int classEnd = skipToken(classStart, end);
+        final int nameStart = skipWhitespace(classEnd, end);
+        final int nameEnd = skipToken(nameStart, end);
+        if (classStart == end || nameEnd != end) {
+            throw new IllegalArgumentException("Invalid FML access transformer line: " + decode(start, end));
+        }
+
+        AccessTransform transform = parseAccessTransform(start, accessEnd);
+
+        String className = getClassName(classStart, classEnd);
+
+        if (nameStart == end) {
+            // Class
+            this.visitor.visitClass(className, transform);
+        } else {
+            int methodIndex = indexOf(nameStart, nameEnd, METHOD_START);
+
+            if (this.buffer.get(nameStart) == WILDCARD) {
+                // Wildcard
+                if (methodIndex != nameEnd) {
+                    this.visitor.visitAllMethods(className, transform);
+                } else {
+                    this.visitor.visitAllFields(className, transform);
+                }
+            } else if (methodIndex != nameEnd) {
+                this.visitor.visitMethod(className, MethodSignature.of(decode(nameStart, methodIndex), decode(methodIndex, nameEnd)), transform);
+            } else {
+                this.visitor.visitField(className, decode(nameStart, nameEnd), transform);
+            }
+        }
+    }
+
+    private String getClassName(int start, int end) throws IOException {
+        // Entries for the same class are usually grouped together, so avoid decoding the name again
+        if (this.lastClassName == null || !regionMatches(this.lastClassStart, this.lastClassEnd, start, end)) {
+            this.lastClassName = decode(start, end).replace('.', '/');
+            this.lastClassStart = start;
+            this.lastClassEnd = end;
+        }
+        return this.lastClassName;
+    }
+
+    private AccessTransform parseAccessTransform(int start, int end) throws IOException {
+        if (!isAscii(start, end)) {
+            // Keep the exact behaviour and error messages of the String based reader
+            return FmlReader.parseAccessTransform(decode(start, end));
+        }
+
+        int last = end - start - 1;
+        if (last < 2) {
+            throw new IllegalArgumentException("Invalid access transformer: " + decode(start, end));
+        }
+
+        ModifierChange finalChange;
+        if (this.buffer.get(start + last) == 'f') {
+            finalChange = FmlReader.parseFinalModifier((char) this.buffer.get(start + --last));
+            end = start + last;
+        } else {
+            finalChange = ModifierChange.NONE;
+        }
+
+        return AccessTransform.of(parseAccess(start, end), finalChange);
+    }
+
+    private AccessChange parseAccess(int start, int end) throws IOException {
+        if (start == end) {
+            return AccessChange.NONE;
+        } else if (regionMatches(start, end, PUBLIC)) {
+            return AccessChange.PUBLIC;
+        } else if (regionMatches(start, end, PROTECTED)) {
+            return AccessChange.PROTECTED;
+        } else if (regionMatches(start, end, DEFAULT)) {
+            return AccessChange.PACKAGE_PRIVATE;
+        } else if (regionMatches(start, end, PRIVATE)) {
+            return AccessChange.PRIVATE;
+        } else {
+            return FmlReader.parseAccess(decode(start, end));
+        }
+    }
+
+    private int indexOf(int start, int end, byte b) {
+        for (int i = start; i < end; i++) {
+            if (this.buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private int skipToken(int start, int end) {
+        while (start < end && !isWhitespace(this.buffer.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private int skipWhitespace(int start, int end) {
+        while (start < end && isWhitespace(this.buffer.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private boolean isAscii(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (this.buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionMatches(int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (this.buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionMatches(int start, int end, int otherStart, int otherEnd) {
+        if (end - start != otherEnd - otherStart) {
+            return false;
+        }
+        for (int i = start, j = otherStart; i < end; i++, j++) {
+            if (this.buffer.get(i) != this.buffer.get(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String decode(int start, int end) throws CharacterCodingException {
+        final int length = end - start;
+        if (this.chars.length < length) {
+            this.chars = new char[Math.max(length, this.chars.length * 2)];
+        }
+
+        for (int i = 0; i < length; i++) {
+            byte b = this.buffer.get(start + i);
+            if (b < 0) {
+                ByteBuffer slice = this.buffer.duplicate();
+                ((Buffer) slice).limit(end);
+                ((Buffer) slice).position(start);
+                return this.decoder.decode(slice).toString();
+            }
+            this.chars[i] = (char) b;
+        }
+
+        return new String(this.chars, 0, length);
+    }
+
+    // Same characters as \s in java.util.regex
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
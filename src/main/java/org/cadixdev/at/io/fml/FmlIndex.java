@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.fml;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.impl.LazyAccessTransformSetImpl;
+import org.cadixdev.at.io.AccessTransformVisitor;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Positions of the lines of each class in one or more (mapped) files, so each class can be read on its own
+final class FmlIndex implements LazyAccessTransformSetImpl.Loader {
+
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+
+    private final Map<String, Lines> lines = new HashMap<>();
+
+    void add(ByteBuffer buffer) throws IOException {
+        final long file = (long) this.buffers.size() << 32;
+        this.buffers.add(buffer);
+
+        new FmlBufferReader(buffer, null).index((className, pos) ->
+                this.lines.computeIfAbsent(className, n -> new Lines()).add(file | pos));
+    }
+
+    AccessTransformSet createSet() {
+        return new LazyAccessTransformSetImpl(this.lines.keySet(), this);
+    }
+
+    @Override
+    public void load(String name, AccessTransformSet.Class classSet) throws IOException {
+        Lines lines = this.lines.get(name);
+
+        ClassVisitor visitor = new ClassVisitor(classSet);
+        FmlBufferReader reader = null;
+        int readerFile = -1;
+        for (int i = 0; i < lines.size; i++) {
+            int file = (int) (lines.positions[i] >>> 32);
+            if (file != readerFile) {
+                reader = new FmlBufferReader(this.buffers.get(file), visitor);
+                readerFile = file;
+            }
+            reader.readLine((int) lines.positions[i]);
+        }
+    }
+
+    private static final class Lines {
+
+        // File index in the upper and line start in the lower 32 bits
+        long[] positions = new long[2];
+        int size;
+
+        void add(long position) {
+            if (this.size == this.positions.length) {
+                this.positions = Arrays.copyOf(this.positions, this.size * 2);
+            }
+            this.positions[this.size++] = position;
+        }
+
+    }
+
+    // All lines that are read belong to the same class
+    private static final class ClassVisitor implements AccessTransformVisitor {
+
+        private final AccessTransformSet.Class classSet;
+
+        ClassVisitor(AccessTransformSet.Class classSet) {
+            this.classSet = classSet;
+        }
+
+        @Override
+        public void visitClass(String className, AccessTransform transform) {
+            this.classSet.merge(transform);
+        }
+
+        @Override
+        public void visitAllFields(String className, AccessTransform transform) {
+            this.classSet.mergeAllFields(transform);
+        }
+
+        @Override
+        public void visitField(String className, String name, AccessTransform transform) {
+            this.classSet.mergeField(name, transform);
+        }
+
+        @Override
+        public void visitAllMethods(String className, AccessTransform transform) {
+            this.classSet.mergeAllMethods(transform);
+        }
+
+        @Override
+        public void visitMethod(String className, MethodSignature signature, AccessTransform transform) {
+            this.classSet.mergeMethod(signature, transform);
+        }
+
+    }
+
+}
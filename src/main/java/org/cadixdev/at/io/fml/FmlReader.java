@@ -26,8 +26,8 @@
 
 import org.cadixdev.at.AccessChange;
 import org.cadixdev.at.AccessTransform;
-import org.cadixdev.at.AccessTransformSet;
 import org.cadixdev.at.ModifierChange;
+import org.cadixdev.at.io.AccessTransformVisitor;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 
 import java.io.BufferedReader;
@@ -41,7 +41,7 @@ final class FmlReader {
 
     private static final Pattern SPACE_PATTERN = Pattern.compile("\\s+");
 
-    static void read(BufferedReader reader, AccessTransformSet set) throws IOException {
+    static void read(BufferedReader reader, AccessTransformVisitor visitor) throws IOException {
         String line;
         while ((line = reader.readLine()) != null) {
             line = substringBefore(line, COMMENT_PREFIX).trim();
@@ -56,11 +56,11 @@ static void read(BufferedReader reader, AccessTransformSet set) throws IOExcepti
 
             AccessTransform transform = parseAccessTransform(parts[0]);
 
-            AccessTransformSet.Class classSet = set.getOrCreateClass(parts[1]);
+            String className = parts[1].replace('.', '/');
 
             if (parts.length == 2) {
                 // Class
-                classSet.merge(transform);
+                visitor.visitClass(className, transform);
             } else {
                 String name = parts[2];
                 int methodIndex = name.indexOf('(');
@@ -68,20 +68,20 @@ static void read(BufferedReader reader, AccessTransformSet set) throws IOExcepti
                 if (name.charAt(0) == WILDCARD) {
                     // Wildcard
                     if (methodIndex != -1) {
-                        classSet.mergeAllMethods(transform);
+                        visitor.visitAllMethods(className, transform);
                     } else {
-                        classSet.mergeAllFields(transform);
+                        visitor.visitAllFields(className, transform);
                     }
                 } else if (methodIndex >= 0) {
-                    classSet.mergeMethod(MethodSignature.of(name.substring(0, methodIndex), name.substring(methodIndex)), transform);
+                    visitor.visitMethod(className, MethodSignature.of(name.substring(0, methodIndex), name.substring(methodIndex)), transform);
                 } else {
-                    classSet.mergeField(name, transform);
+                    visitor.visitField(className, name, transform);
                 }
             }
         }
     }
 
-    private static AccessTransform parseAccessTransform(String access) {
+    static AccessTransform parseAccessTransform(String access) {
         int last = access.length() - 1;
         if (last < 2) {
             throw new IllegalArgumentException("Invalid access transformer: " + access);
@@ -98,7 +98,7 @@ private static AccessTransform parseAccessTransform(String access) {
         return AccessTransform.of(parseAccess(access), finalChange);
     }
 
-    private static AccessChange parseAccess(String access) {
+    static AccessChange parseAccess(String access) {
         switch (access) {
             case "public":
                 return AccessChange.PUBLIC;
@@ -116,7 +116,7 @@ private static AccessChange parseAccess(String access) {
         }
     }
 
-    private static ModifierChange parseFinalModifier(char m) {
+    static ModifierChange parseFinalModifier(char m) {
         switch (m) {
             case '-':
                 return ModifierChange.REMOVE;
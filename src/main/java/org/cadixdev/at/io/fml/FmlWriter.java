@@ -26,36 +26,63 @@
 
 import org.cadixdev.at.AccessChange;
 import org.cadixdev.at.AccessTransform;
-import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.io.AccessTransformWriter;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.function.BiConsumer;
 
-final class FmlWriter {
+final class FmlWriter implements AccessTransformWriter {
 
     private static final char WILDCARD = '*';
     private static final String METHOD_WILDCARD = WILDCARD + "()";
 
     private final BufferedWriter writer;
 
+    private String lastClassName;
+    private String lastFmlClassName;
+
     FmlWriter(BufferedWriter writer) {
         this.writer = writer;
     }
 
-    void write(AccessTransformSet set) throws IOException {
-        set.getClasses().forEach(throwing((originalClassName, classSet) -> {
-            final String className = originalClassName.replace('/', '.');
+    @Override
+    public void visitClass(String className, AccessTransform transform) throws IOException {
+        writeClass(toFmlClassName(className), transform);
+    }
+
+    @Override
+    public void visitAllFields(String className, AccessTransform transform) throws IOException {
+        writeField(toFmlClassName(className), null, transform);
+    }
 
-            writeClass(className, classSet.get());
+    @Override
+    public void visitField(String className, String name, AccessTransform transform) throws IOException {
+        writeField(toFmlClassName(className), name, transform);
+    }
 
-            writeField(className, null, classSet.allFields());
-            classSet.getFields().forEach(throwing((name, transform) -> writeField(className, name, transform)));
+    @Override
+    public void visitAllMethods(String className, AccessTransform transform) throws IOException {
+        writeMethod(toFmlClassName(className), null, transform);
+    }
 
-            writeMethod(className, null, classSet.allMethods());
-            classSet.getMethods().forEach(throwing((name, transform) -> writeMethod(className, name, transform)));
-        }));
+    @Override
+    public void visitMethod(String className, MethodSignature signature, AccessTransform transform) throws IOException {
+        writeMethod(toFmlClassName(className), signature, transform);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    private String toFmlClassName(String className) {
+        // Entries for the same class are usually written together
+        if (!className.equals(this.lastClassName)) {
+            this.lastFmlClassName = className.replace('/', '.');
+            this.lastClassName = className;
+        }
+        return this.lastFmlClassName;
     }
 
     private static String getAccessModifier(AccessChange change) {
@@ -138,29 +165,4 @@ private void writeMethod(String className, MethodSignature signature, AccessTran
         this.writer.newLine();
     }
 
-
-    private static <T, U> BiConsumer<T, U> throwing(ThrowingBiConsumer<T, U> consumer) {
-        return consumer;
-    }
-
-    private interface ThrowingBiConsumer<T, U> extends BiConsumer<T, U> {
-
-        void throwingAccept(T t, U u) throws IOException;
-
-        @Override
-        default void accept(T t, U u) {
-            try {
-                throwingAccept(t, u);
-            } catch (IOException e) {
-                rethrow(e);
-            }
-        }
-
-        @SuppressWarnings("unchecked")
-        static <E extends Exception> void rethrow(Exception e) throws E {
-            throw (E) e;
-        }
-
-    }
-
 }
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+public class AccessTransformFingerprintTest {
+
+    @Test
+    public void testFingerprint() {
+        AccessTransformSet set = AccessTransformSet.create();
+        for (int i = 0; i < 100; i++) {
+            populate(set, i);
+        }
+
+        // Different insertion order and implementation
+        AccessTransformSet other = AccessTransformSet.createCompact();
+        for (int i = 99; i >= 0; i--) {
+            populate(other, i);
+        }
+        other.getOrCreateClass("test/Empty");
+
+        AccessTransformFingerprint fingerprint = AccessTransformFingerprint.of(set);
+        assertEquals(fingerprint, AccessTransformFingerprint.of(other));
+        assertEquals(fingerprint, AccessTransformFingerprint.of(set.freeze()));
+        assertEquals(32, fingerprint.toString().length());
+        assertNotEquals(AccessTransformFingerprint.EMPTY, fingerprint);
+
+        // Update the fingerprint incrementally
+        AccessTransformSet.Class classSet = set.getOrCreateClass("test/Class5");
+        AccessTransform old = classSet.getField("field5");
+        AccessTransform merged = classSet.mergeField("field5", AccessTransform.of(ModifierChange.REMOVE));
+        AccessTransformFingerprint updated = fingerprint
+                .subtract(AccessTransformFingerprint.ofField("test/Class5", "field5", old))
+                .add(AccessTransformFingerprint.ofField("test/Class5", "field5", merged));
+        assertNotEquals(fingerprint, updated);
+        assertEquals(AccessTransformFingerprint.of(set), updated);
+        assertEquals(fingerprint, updated.add(fingerprint).subtract(updated));
+    }
+
+    private static void populate(AccessTransformSet set, int i) {
+        AccessTransformSet.Class classSet = set.getOrCreateClass("test/Class" + i);
+        classSet.merge(AccessTransform.PUBLIC);
+        classSet.mergeField("field" + i, AccessTransform.of(AccessChange.PROTECTED));
+        classSet.mergeMethod(MethodSignature.of("method" + i, "()V"), AccessTransform.PUBLIC);
+        if (i % 10 == 0) {
+            classSet.mergeAllMethods(AccessTransform.of(ModifierChange.REMOVE));
+        }
+    }
+
+}
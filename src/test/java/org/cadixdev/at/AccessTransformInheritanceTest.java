@@ -25,13 +25,24 @@
 package org.cadixdev.at;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.cadixdev.at.io.AccessTransformCompletionCache;
 import org.cadixdev.bombe.analysis.InheritanceProvider;
 import org.cadixdev.bombe.analysis.ReflectionInheritanceProvider;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class AccessTransformInheritanceTest {
 
@@ -50,4 +61,154 @@ public void testAtIfSuperClassWithoutAtMakesInheritableMethodNotVisibleEnough()
         assertEquals(testClass.getMethod(helloWorld), AccessTransform.PUBLIC);
     }
 
+    @Test
+    public void testCompleteAllMatchesComplete() {
+        final MethodSignature helloWorld = MethodSignature.of("helloWorld()V");
+
+        AccessTransformSet expected = AccessTransformSet.create();
+        expected.getOrCreateClass("test.inheritance.a.BaseClass").mergeMethod(helloWorld, AccessTransform.PUBLIC);
+        expected.getOrCreateClass("test.inheritance.TestClass").complete(INHERITANCE);
+        // complete() leaves empty entries for all parents behind
+        new ArrayList<>(expected.getClasses().values()).stream()
+                .filter(c -> c.get().isEmpty() && c.getMethods().isEmpty())
+                .forEach(c -> expected.removeClass(c.getName()));
+
+        AccessTransformSet ats = AccessTransformSet.create();
+        ats.getOrCreateClass("test.inheritance.a.BaseClass").mergeMethod(helloWorld, AccessTransform.PUBLIC);
+        ats.getOrCreateClass("test.inheritance.TestClass");
+        ats.completeAll(INHERITANCE);
+
+        assertEquals(expected, ats);
+        assertEquals(AccessTransform.PUBLIC, ats.getOrCreateClass("test.inheritance.a.ProtectedBaseClass").getMethod(helloWorld));
+        assertTrue(ats.getClasses().values().stream().allMatch(AccessTransformSet.Class::isComplete));
+    }
+
+    @Test
+    public void testParallelCompleteAllMatchesCompleteAll() {
+        AccessTransformSet expected = createHierarchy();
+        expected.completeAll(INHERITANCE);
+
+        AccessTransformSet ats = createHierarchy();
+        ats.completeAll(INHERITANCE, ForkJoinPool.commonPool());
+
+        assertEquals(expected, ats);
+        assertEquals(AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE), ats.getOrCreateClass("java/util/ArrayList").getMethod(MethodSignature.of("size()I")));
+        assertTrue(ats.getClasses().values().stream().allMatch(AccessTransformSet.Class::isComplete));
+    }
+
+    @Test
+    public void testCompleteAllMatchesCompleteOnLargeHierarchy() {
+        final int classes = 3000;
+        InheritanceProvider provider = new ReflectionInheritanceProvider(new SyntheticHierarchy(classes));
+
+        // Completing each class on its own is the reference for both completeAll variants
+        AccessTransformSet expected = createSyntheticHierarchy(classes);
+        for (AccessTransformSet.Class classSet : new ArrayList<>(expected.getClasses().values())) {
+            classSet.complete(provider);
+        }
+        // complete() leaves empty entries for parents outside the set behind
+        new ArrayList<>(expected.getClasses().values()).stream()
+                .filter(c -> c.get().isEmpty() && c.getMethods().isEmpty())
+                .forEach(c -> expected.removeClass(c.getName()));
+
+        AccessTransformSet sequential = createSyntheticHierarchy(classes);
+        sequential.completeAll(provider);
+        assertEquals(expected, sequential);
+
+        AccessTransformSet ats = createSyntheticHierarchy(classes);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ats.completeAll(provider, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(expected, ats);
+        assertTrue(ats.getClasses().values().stream().allMatch(AccessTransformSet.Class::isComplete));
+
+        // C2999 -> C999 -> C332 -> C110 -> C36 -> C11 -> C3 -> C0
+        AccessTransformSet.Class leaf = ats.getOrCreateClass(SyntheticHierarchy.className(classes - 1));
+        assertEquals(AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE), leaf.getMethod(MethodSignature.of("run()V")));
+        assertEquals(AccessTransform.of(AccessChange.PROTECTED), leaf.getMethod(MethodSignature.of("m19()V")));
+    }
+
+    @Test
+    public void testCompletionCache() throws IOException {
+        Path directory = Files.createTempDirectory("at-cache");
+        Path classpath = Files.createTempFile("at-classpath", ".jar");
+        try {
+            AccessTransformCompletionCache cache = new AccessTransformCompletionCache(directory);
+
+            AccessTransformSet expected = createHierarchy();
+            assertSame(expected, cache.complete(expected, INHERITANCE, Collections.singleton(classpath)));
+
+            // The hierarchy is not walked again for the same access transformers and classes
+            AccessTransformSet cached = cache.complete(createHierarchy(), klass -> {
+                throw new AssertionError("Looked up " + klass);
+            }, Collections.singleton(classpath));
+            assertEquals(expected, cached);
+            assertTrue(cached.getClasses().values().stream().allMatch(AccessTransformSet.Class::isComplete));
+
+            // Touching the classes without changing them falls back to the hash of their contents
+            Files.setLastModifiedTime(classpath, FileTime.fromMillis(Files.getLastModifiedTime(classpath).toMillis() - 60_000));
+            assertEquals(expected, cache.complete(createHierarchy(), klass -> {
+                throw new AssertionError("Looked up " + klass);
+            }, Collections.singleton(classpath)));
+
+            // A corrupt cache file with a huge string count is completed again instead of allocating for it
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files.filter(file -> file.toString().endsWith(".bin"))::iterator) {
+                    byte[] bytes = Arrays.copyOf(Files.readAllBytes(file), 12);
+                    Arrays.fill(bytes, 8, 12, (byte) 0x7F);
+                    Files.write(file, bytes);
+                }
+            }
+            AccessTransformSet corrupt = createHierarchy();
+            assertSame(corrupt, cache.complete(corrupt, INHERITANCE, Collections.singleton(classpath)));
+            assertEquals(expected, cache.complete(createHierarchy(), klass -> {
+                throw new AssertionError("Looked up " + klass);
+            }, Collections.singleton(classpath)));
+
+            // Different classes
+            Files.write(classpath, new byte[] { 1 });
+            AccessTransformSet ats = createHierarchy();
+            assertSame(ats, cache.complete(ats, INHERITANCE, Collections.singleton(classpath)));
+        } finally {
+            Files.delete(classpath);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static AccessTransformSet createSyntheticHierarchy(int classes) {
+        AccessTransformSet ats = AccessTransformSet.create();
+        for (int j = 0; j < SyntheticHierarchy.INTERFACES; j++) {
+            ats.getOrCreateClass(SyntheticHierarchy.interfaceName(j)).mergeMethod(MethodSignature.of("m" + j, "()V"), AccessTransform.of(AccessChange.PROTECTED));
+        }
+        ats.getOrCreateClass(SyntheticHierarchy.className(0)).mergeMethod(MethodSignature.of("run()V"), AccessTransform.PUBLIC);
+        for (int i = 1; i < classes; i++) {
+            AccessTransformSet.Class classSet = ats.getOrCreateClass(SyntheticHierarchy.className(i));
+            if (i % 11 == 0) {
+                classSet.mergeMethod(MethodSignature.of("run()V"), AccessTransform.of(ModifierChange.REMOVE));
+            }
+        }
+        return ats;
+    }
+
+    private static AccessTransformSet createHierarchy() {
+        AccessTransformSet ats = AccessTransformSet.create();
+        ats.getOrCreateClass("test.inheritance.a.BaseClass").mergeMethod(MethodSignature.of("helloWorld()V"), AccessTransform.PUBLIC);
+        ats.getOrCreateClass("test.inheritance.TestClass");
+        ats.getOrCreateClass("java.util.Collection").mergeMethod(MethodSignature.of("size()I"), AccessTransform.PUBLIC);
+        ats.getOrCreateClass("java.util.List").mergeMethod(MethodSignature.of("size()I"), AccessTransform.of(ModifierChange.REMOVE));
+        ats.getOrCreateClass("java.util.ArrayList");
+        ats.getOrCreateClass("java.util.LinkedList");
+        ats.getOrCreateClass("java.util.ArrayDeque");
+        return ats;
+    }
+
 }
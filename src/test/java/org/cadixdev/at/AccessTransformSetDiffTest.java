@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+public class AccessTransformSetDiffTest {
+
+    @Test
+    public void testDiff() {
+        MethodSignature method = MethodSignature.of("method", "()V");
+
+        AccessTransformSet from = AccessTransformSet.create();
+        from.getOrCreateClass("test/Unchanged").mergeField("field", AccessTransform.PUBLIC);
+        from.getOrCreateClass("test/Removed").merge(AccessTransform.PUBLIC);
+        AccessTransformSet.Class changed = from.getOrCreateClass("test/Changed");
+        changed.mergeField("field", AccessTransform.PUBLIC);
+        changed.mergeField("same", AccessTransform.PUBLIC);
+        changed.mergeMethod(method, AccessTransform.of(AccessChange.PROTECTED));
+
+        AccessTransformSet to = AccessTransformSet.createCompact();
+        to.getOrCreateClass("test/Unchanged").mergeField("field", AccessTransform.PUBLIC);
+        to.getOrCreateClass("test/Empty");
+        changed = to.getOrCreateClass("test/Changed");
+        // Now inherited from allFields, so the effective transform is the same
+        changed.mergeAllFields(AccessTransform.PUBLIC);
+        changed.mergeField("same", AccessTransform.PUBLIC);
+        changed.mergeMethod(method, AccessTransform.PUBLIC);
+
+        assertTrue(AccessTransformSetDiff.compute(from, from).isEmpty());
+
+        AccessTransformSetDiff diff = AccessTransformSetDiff.compute(from, to);
+        assertEquals(2, diff.getClasses().size());
+
+        AccessTransformSetDiff.ClassDiff removed = diff.getClasses().get("test/Removed");
+        assertTrue(removed.isClassChanged());
+        assertTrue(removed.getFields().isEmpty());
+
+        AccessTransformSetDiff.ClassDiff changedDiff = diff.getClasses().get("test/Changed");
+        assertFalse(changedDiff.isClassChanged());
+        assertTrue(changedDiff.isAllFieldsChanged());
+        assertFalse(changedDiff.isAllMethodsChanged());
+        assertTrue(changedDiff.getFields().isEmpty());
+        assertEquals(Collections.singleton(method), changedDiff.getMethods());
+    }
+
+}
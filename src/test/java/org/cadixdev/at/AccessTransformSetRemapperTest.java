@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class AccessTransformSetRemapperTest {
+
+    @Test
+    public void testCompiledRemapMatchesMappingSetRemap() {
+        MappingSet mappings = MappingSet.create();
+        mappings.getOrCreateClassMapping("a").setDeobfuscatedName("pkg/Foo");
+        mappings.getOrCreateClassMapping("a").getOrCreateFieldMapping("a").setDeobfuscatedName("name");
+        mappings.getOrCreateClassMapping("a").getOrCreateMethodMapping("a", "(La;)V").setDeobfuscatedName("run");
+        mappings.getOrCreateClassMapping("a$b").setDeobfuscatedName("Inner");
+        mappings.getOrCreateClassMapping("a$b").getOrCreateMethodMapping("b", "([La;I)La$b;").setDeobfuscatedName("copy");
+        mappings.getOrCreateClassMapping("c").setDeobfuscatedName("pkg/Bar");
+
+        AccessTransformSet set = AccessTransformSet.create();
+        AccessTransformSet.Class a = set.getOrCreateClass("a");
+        a.merge(AccessTransform.PUBLIC);
+        a.mergeField("a", AccessTransform.PUBLIC);
+        a.mergeField("z", AccessTransform.of(ModifierChange.REMOVE));
+        a.mergeMethod(MethodSignature.of("a", "(La;)V"), AccessTransform.PUBLIC);
+        // Unmapped methods with mapped, inner, array and primitive types in their descriptor
+        a.mergeMethod(MethodSignature.of("m", "(La$b;[[La;JD)V"), AccessTransform.of(AccessChange.PROTECTED));
+        a.mergeMethod(MethodSignature.of("n", "()[I"), AccessTransform.PUBLIC);
+        AccessTransformSet.Class inner = set.getOrCreateClass("a$b");
+        inner.mergeAllMethods(AccessTransform.PUBLIC);
+        inner.mergeMethod(MethodSignature.of("b", "([La;I)La$b;"), AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE));
+        set.getOrCreateClass("c").mergeMethod(MethodSignature.of("x", "(Lc;La$c;)Lc;"), AccessTransform.PUBLIC);
+        set.getOrCreateClass("d/E").mergeMethod(MethodSignature.of("y", "(La;Ld/E;)V"), AccessTransform.PUBLIC);
+
+        AccessTransformSet expected = set.remap(mappings);
+        AccessTransformSet.Class foo = expected.getClass("pkg/Foo").orElseThrow(AssertionError::new);
+        assertEquals(AccessTransform.PUBLIC, foo.getField("name"));
+        assertEquals(AccessTransform.PUBLIC, foo.getMethod(MethodSignature.of("run", "(Lpkg/Foo;)V")));
+        assertEquals(AccessTransform.of(AccessChange.PROTECTED), foo.getMethod(MethodSignature.of("m", "(Lpkg/Foo$Inner;[[Lpkg/Foo;JD)V")));
+        assertEquals(AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE), expected.getClass("pkg/Foo$Inner").orElseThrow(AssertionError::new)
+                .getMethod(MethodSignature.of("copy", "([Lpkg/Foo;I)Lpkg/Foo$Inner;")));
+
+        AccessTransformSetRemapper compiled = AccessTransformSetRemapper.compile(mappings);
+        assertEquals(expected, compiled.remap(set));
+        assertEquals(expected, compiled.remap(set, ForkJoinPool.commonPool()));
+        assertEquals(expected, set.remap(mappings, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void testParallelRemapMatchesSequentialRemap() {
+        // Enough classes to split the work, with unmapped inner classes of mapped classes in descriptors
+        AccessTransformSet set = AccessTransformSet.create();
+        for (int i = 0; i < 2000; i++) {
+            AccessTransformSet.Class classSet = set.getOrCreateClass("c" + i);
+            classSet.mergeField("f", AccessTransform.PUBLIC);
+            classSet.mergeMethod(MethodSignature.of("m", "(Lc" + i + "$i;Lc" + (i + 1) + "$i;)V"), AccessTransform.PUBLIC);
+            set.getOrCreateClass("c" + i + "$i").mergeMethod(MethodSignature.of("n", "()Lc" + i + ";"), AccessTransform.PUBLIC);
+        }
+
+        assertEquals(set.remap(createMappings(2000)), set.remap(createMappings(2000), ForkJoinPool.commonPool()));
+    }
+
+    private static MappingSet createMappings(int classes) {
+        MappingSet mappings = MappingSet.create();
+        for (int i = 0; i < classes; i++) {
+            mappings.getOrCreateClassMapping("c" + i).setDeobfuscatedName("pkg/Class" + i);
+            mappings.getOrCreateClassMapping("c" + i).getOrCreateFieldMapping("f").setDeobfuscatedName("field");
+        }
+        return mappings;
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+public class AccessTransformSetTest {
+
+    @Test
+    public void testGetClassByName() {
+        AccessTransformSet set = AccessTransformSet.create();
+        AccessTransformSet.Class classSet = set.getOrCreateClass("test.inheritance.TestClass");
+        set.getOrCreateClass("test/inheritance/TestClass2");
+
+        for (AccessTransformSet s : new AccessTransformSet[] { set, set.freeze() }) {
+            AccessTransformSet.Class expected = s.getClass("test/inheritance/TestClass").orElseThrow(AssertionError::new);
+            assertSame(expected, s.getClass("test.inheritance.TestClass").orElseThrow(AssertionError::new));
+            assertSame(expected, s.getClass("Ltest/inheritance/TestClass;", 1, 27).orElseThrow(AssertionError::new));
+            assertSame(expected, s.getClass(new StringBuilder("test.inheritance.TestClass.class"), 0, 26).orElseThrow(AssertionError::new));
+            assertFalse(s.getClass("test/inheritance/TestClass2", 0, 25).isPresent());
+            assertThrows(IndexOutOfBoundsException.class, () -> s.getClass("test", 2, 5));
+        }
+
+        assertSame(classSet, set.getOrCreateClass("test/inheritance/TestClass"));
+        assertSame(classSet, set.removeClass("test.inheritance.TestClass").orElseThrow(AssertionError::new));
+        assertFalse(set.getClass("test/inheritance/TestClass").isPresent());
+    }
+
+    @Test
+    public void testEffectiveAccess() {
+        for (AccessTransformSet set : new AccessTransformSet[] { AccessTransformSet.create(), AccessTransformSet.createCompact(), AccessTransformSet.createConcurrent() }) {
+            AccessTransformSet.Class classSet = set.getOrCreateClass("test/A");
+            classSet.mergeField("a", AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE));
+            classSet.mergeAllMethods(AccessTransform.of(AccessChange.PROTECTED));
+            classSet.mergeMethod(MethodSignature.of("a", "(I)V"), AccessTransform.PUBLIC);
+            classSet.mergeMethod(MethodSignature.of("a", "(J)V"), AccessTransform.PUBLIC);
+            classSet.replaceMethod(MethodSignature.of("a", "(J)V"), AccessTransform.EMPTY);
+
+            for (AccessTransformSet s : new AccessTransformSet[] { set, set.freeze() }) {
+                assertEquals(Modifier.PUBLIC, s.effectiveFieldAccess("test/A", "a", Modifier.PRIVATE | Modifier.FINAL));
+                assertEquals(Modifier.PRIVATE, s.effectiveFieldAccess("test/A", "b", Modifier.PRIVATE));
+                assertEquals(Modifier.PUBLIC | Modifier.STATIC, s.effectiveMethodAccess("test/A", "a", "(I)V", Modifier.STATIC));
+                assertEquals(Modifier.PROTECTED, s.effectiveMethodAccess("test/A", "a", "(J)V", 0));
+                assertEquals(Modifier.PROTECTED, s.effectiveMethodAccess("test/A", "b", "()V", Modifier.PRIVATE));
+                assertEquals(Modifier.PRIVATE, s.effectiveMethodAccess("test/B", "a", "(I)V", Modifier.PRIVATE));
+            }
+        }
+    }
+
+    @Test
+    public void testMethodByDescriptor() {
+        final MethodSignature signature = MethodSignature.of("a", "(Ljava/lang/String;)V");
+        final AccessTransform expected = AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE);
+
+        for (AccessTransformSet set : new AccessTransformSet[] { AccessTransformSet.create(), AccessTransformSet.createCompact(), AccessTransformSet.createConcurrent() }) {
+            AccessTransformSet.Class classSet = set.getOrCreateClass("test/A");
+            classSet.mergeAllMethods(AccessTransform.of(AccessChange.PROTECTED));
+            assertEquals(AccessTransform.PUBLIC, classSet.mergeMethod("a", "(Ljava/lang/String;)V", AccessTransform.PUBLIC));
+            assertEquals(expected, classSet.mergeMethod("a", "(Ljava/lang/String;)V", AccessTransform.of(ModifierChange.REMOVE)));
+
+            assertEquals(Collections.singletonMap(signature, expected), classSet.getMethods());
+            for (AccessTransformSet.Class c : new AccessTransformSet.Class[] { classSet, set.freeze().getClass("test/A").orElseThrow(AssertionError::new) }) {
+                assertEquals(expected, c.getMethod("a", "(Ljava/lang/String;)V"));
+                assertEquals(AccessTransform.of(AccessChange.PROTECTED), c.getMethod("a", "()V"));
+                assertEquals(AccessTransform.of(AccessChange.PROTECTED), c.getMethod("b", "(Ljava/lang/String;)V"));
+            }
+
+            // Methods added or removed after the first lookup by descriptor
+            classSet.mergeMethod(MethodSignature.of("b", "()V"), AccessTransform.PUBLIC);
+            assertEquals(AccessTransform.PUBLIC, classSet.getMethod("b", "()V"));
+            classSet.replaceMethod(signature, AccessTransform.EMPTY);
+            assertEquals(AccessTransform.of(AccessChange.PROTECTED), classSet.getMethod("a", "(Ljava/lang/String;)V"));
+        }
+    }
+
+    @Test
+    public void testClassNameFilter() {
+        AccessTransformSet set = AccessTransformSet.create();
+        set.getOrCreateClass("test/A").mergeField("a", AccessTransform.PUBLIC);
+        set.getOrCreateClass("test/Empty");
+        for (int i = 0; i < 1000; i++) {
+            set.getOrCreateClass("test/generated/Class" + i).merge(AccessTransform.PUBLIC);
+        }
+
+        ClassNameFilter filter = set.createClassNameFilter();
+        assertTrue(filter.mightContain("test/A"));
+        assertTrue(filter.mightContain("test.A"));
+        assertTrue(filter.mightContain("Ltest/A;", 1, 7));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("test.generated.Class" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("test/other/Class" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, falsePositives + " false positives");
+
+        assertFalse(AccessTransformSet.create().createClassNameFilter().mightContain("test/A"));
+    }
+
+    @Test
+    public void testDefaultMethods() {
+        AccessTransformSet delegate = AccessTransformSet.create();
+        delegate.getOrCreateClass("test/A").mergeMethod(MethodSignature.of("a", "(I)V"), AccessTransform.PUBLIC);
+        delegate.getOrCreateClass("test/A").mergeField("b", AccessTransform.of(AccessChange.PROTECTED));
+
+        // Implements only the methods that were in the interface before the defaults were added
+        AccessTransformSet set = new AccessTransformSet() {
+            @Override
+            public Map<String, Class> getClasses() {
+                return delegate.getClasses();
+            }
+
+            @Override
+            public Optional<Class> getClass(String name) {
+                return delegate.getClass(name);
+            }
+
+            @Override
+            public Class getOrCreateClass(String name) {
+                return delegate.getOrCreateClass(name);
+            }
+
+            @Override
+            public Optional<Class> removeClass(String name) {
+                return delegate.removeClass(name);
+            }
+
+            @Override
+            public AccessTransformSet remap(MappingSet mappings) {
+                return delegate.remap(mappings);
+            }
+
+            @Override
+            public void merge(AccessTransformSet other) {
+                delegate.merge(other);
+            }
+        };
+
+        assertTrue(set.getClass("Ltest/A;", 1, 7).isPresent());
+        assertTrue(set.createClassNameFilter().mightContain("test/Missing"));
+        assertEquals(Modifier.PUBLIC, set.effectiveMethodAccess("test/A", "a", "(I)V", Modifier.PRIVATE));
+        assertEquals(Modifier.PROTECTED, set.effectiveFieldAccess("test/A", "b", 0));
+        assertEquals(Modifier.PRIVATE, set.effectiveFieldAccess("test/B", "b", Modifier.PRIVATE));
+
+        AccessTransformSet frozen = set.freeze();
+        assertEquals(delegate, frozen);
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getOrCreateClass("test/B"));
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class CompactAccessTransformSetTest {
+
+    private static final AccessTransform[] TRANSFORMS = {
+            AccessTransform.EMPTY,
+            AccessTransform.of(AccessChange.PRIVATE),
+            AccessTransform.of(AccessChange.PROTECTED, ModifierChange.ADD),
+            AccessTransform.of(ModifierChange.REMOVE),
+            AccessTransform.PUBLIC,
+    };
+
+    @Test
+    public void testCompactMatchesDefault() {
+        AccessTransformSet expected = AccessTransformSet.create();
+        AccessTransformSet compact = AccessTransformSet.createCompact();
+
+        // Mix merges with replacements, so entries are also removed again
+        Random random = new Random(0);
+        for (int i = 0; i < 100_000; i++) {
+            String className = "test/Class" + random.nextInt(8);
+            String field = "field" + random.nextInt(256);
+            MethodSignature method = MethodSignature.of("method" + random.nextInt(64), random.nextBoolean() ? "()V" : "(I)I");
+            AccessTransform transform = TRANSFORMS[random.nextInt(TRANSFORMS.length)];
+
+            boolean replace = random.nextInt(4) == 0;
+            for (AccessTransformSet set : new AccessTransformSet[] { expected, compact }) {
+                AccessTransformSet.Class classSet = set.getOrCreateClass(className);
+                if (replace) {
+                    classSet.replaceField(field, transform);
+                    classSet.replaceMethod(method, transform);
+                } else {
+                    classSet.mergeField(field, transform);
+                    classSet.mergeMethod(method, transform);
+                }
+            }
+
+            assertEquals(expected.getOrCreateClass(className).getField(field), compact.getOrCreateClass(className).getField(field));
+            assertEquals(expected.getOrCreateClass(className).getMethod(method), compact.getOrCreateClass(className).getMethod(method));
+        }
+
+        assertEquals(expected, compact);
+        assertEquals(compact, expected);
+        assertEquals(expected.hashCode(), compact.hashCode());
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+public class ConcurrentAccessTransformSetTest {
+
+    private static final AccessTransform[] TRANSFORMS = {
+            AccessTransform.of(AccessChange.PRIVATE),
+            AccessTransform.of(AccessChange.PROTECTED, ModifierChange.ADD),
+            AccessTransform.of(ModifierChange.REMOVE),
+            AccessTransform.PUBLIC,
+    };
+
+    @Test
+    public void testConcurrentReadsByDescriptor() {
+        // A populated default set may be read from multiple threads, including the first lookups by descriptor string
+        for (int round = 0; round < 20; round++) {
+            AccessTransformSet set = AccessTransformSet.create();
+            AccessTransformSet.Class classSet = set.getOrCreateClass("test/A");
+            for (int i = 0; i < 200; i++) {
+                classSet.mergeMethod(MethodSignature.of("m" + (i % 10), descriptor(i / 10)), TRANSFORMS[i % TRANSFORMS.length]);
+            }
+
+            IntStream.range(0, 200).parallel().forEach(i ->
+                    assertEquals(TRANSFORMS[i % TRANSFORMS.length], classSet.getMethod("m" + (i % 10), descriptor(i / 10))));
+        }
+    }
+
+    @Test
+    public void testConcurrentMergeMatchesSequentialMerge() {
+        AccessTransformSet expected = AccessTransformSet.create();
+        IntStream.range(0, 10_000).forEach(i -> populate(expected, i));
+
+        AccessTransformSet concurrent = AccessTransformSet.createConcurrent();
+        IntStream.range(0, 10_000).parallel().forEach(i -> populate(concurrent, i));
+
+        assertEquals(expected, concurrent);
+    }
+
+    private static void populate(AccessTransformSet set, int i) {
+        AccessTransform transform = TRANSFORMS[i % TRANSFORMS.length];
+        AccessTransformSet.Class classSet = set.getOrCreateClass("test/Class" + (i % 16));
+        classSet.merge(transform);
+        classSet.mergeAllFields(transform);
+        classSet.mergeField("field" + (i % 32), transform);
+        classSet.mergeMethod(MethodSignature.of("method" + (i % 32), "()V"), transform);
+    }
+
+    // A descriptor with the given number of int parameters
+    private static String descriptor(int parameters) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < parameters; i++) {
+            builder.append('I');
+        }
+        return builder.append(")V").toString();
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+public class FrozenAccessTransformSetTest {
+
+    @Test
+    public void testFreeze() {
+        AccessTransformSet set = AccessTransformSet.create();
+        for (int i = 0; i < 100; i++) {
+            AccessTransformSet.Class classSet = set.getOrCreateClass("test/p" + (i % 7) + "/Class" + i);
+            classSet.merge(AccessTransform.PUBLIC);
+            classSet.mergeField("field" + i, AccessTransform.of(ModifierChange.REMOVE));
+            classSet.mergeMethod(MethodSignature.of("method" + i, "()V"), AccessTransform.of(AccessChange.PROTECTED));
+        }
+        set.getOrCreateClass("test/AllMethods").mergeAllMethods(AccessTransform.PUBLIC);
+
+        AccessTransformSet frozen = set.freeze();
+        assertEquals(set, frozen);
+        assertSame(frozen, frozen.freeze());
+        assertEquals(set.getClasses(), frozen.getClasses());
+        assertEquals(101, frozen.getClasses().size());
+        assertSame(frozen.getClasses().get("test/p3/Class10"), frozen.getClass("test/p3/Class10").orElseThrow(AssertionError::new));
+
+        AccessTransformSet.Class classSet = frozen.getClass("test.p3.Class10").orElseThrow(AssertionError::new);
+        assertSame(classSet, frozen.getClass("test/p3/Class10").orElseThrow(AssertionError::new));
+        assertEquals(AccessTransform.of(ModifierChange.REMOVE), classSet.getField("field10"));
+        assertEquals(AccessTransform.EMPTY, classSet.getField("field11"));
+        assertEquals(AccessTransform.of(AccessChange.PROTECTED), classSet.getMethod(MethodSignature.of("method10", "()V")));
+        assertEquals(AccessTransform.PUBLIC, frozen.getClass("test.AllMethods").orElseThrow(AssertionError::new)
+                .getMethod(MethodSignature.of("method10", "()V")));
+        assertFalse(frozen.getClass("test.p3.Class11").isPresent());
+
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getOrCreateClass("test/Missing"));
+        assertThrows(UnsupportedOperationException.class, () -> classSet.mergeField("field10", AccessTransform.PUBLIC));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.merge(set));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getClasses().remove("test/p3/Class10"));
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Defines a large hierarchy of abstract classes and interfaces at runtime:
+ *
+ *   test/synthetic/I<j> declares m<j>()V
+ *   test/synthetic/C<i> extends C<(i - 1) / 3> (C0 extends Object), implements I<i % INTERFACES>,
+ *                       and declares run()V and m<i % INTERFACES>()V
+ */
+final class SyntheticHierarchy extends ClassLoader {
+
+    static final String PACKAGE = "test/synthetic/";
+    static final int INTERFACES = 20;
+
+    private final Map<String, byte[]> classes = new HashMap<>();
+
+    SyntheticHierarchy(int classes) {
+        super(SyntheticHierarchy.class.getClassLoader());
+
+        for (int j = 0; j < INTERFACES; j++) {
+            this.classes.put(interfaceName(j), classFile(interfaceName(j), true, "java/lang/Object",
+                    new String[0], "m" + j));
+        }
+        for (int i = 0; i < classes; i++) {
+            this.classes.put(className(i), classFile(className(i), false, i == 0 ? "java/lang/Object" : className((i - 1) / 3),
+                    new String[] { interfaceName(i % INTERFACES) }, "run", "m" + i % INTERFACES));
+        }
+    }
+
+    static String className(int i) {
+        return PACKAGE + "C" + i;
+    }
+
+    static String interfaceName(int j) {
+        return PACKAGE + "I" + j;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] b = this.classes.get(name.replace('.', '/'));
+        if (b == null) {
+            throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, b, 0, b.length);
+    }
+
+    // Public abstract methods without code, all with descriptor ()V
+    private static byte[] classFile(String name, boolean isInterface, String superName, String[] interfaces, String... methods) {
+        List<String> utf8 = new ArrayList<>();
+        utf8.add(name);
+        utf8.add(superName);
+        utf8.addAll(Arrays.asList(interfaces));
+        utf8.add("()V");
+        utf8.addAll(Arrays.asList(methods));
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+
+            // Utf8 entries 1..n, then a Class entry for each of the first 2 + interfaces names
+            int classes = 2 + interfaces.length;
+            out.writeShort(1 + utf8.size() + classes);
+            for (String s : utf8) {
+                out.writeByte(1);
+                out.writeUTF(s);
+            }
+            for (int i = 0; i < classes; i++) {
+                out.writeByte(7);
+                out.writeShort(1 + i);
+            }
+            int classIndex = 1 + utf8.size();
+
+            out.writeShort(isInterface ? 0x0601 : 0x0421);
+            out.writeShort(classIndex);
+            out.writeShort(classIndex + 1);
+            out.writeShort(interfaces.length);
+            for (int i = 0; i < interfaces.length; i++) {
+                out.writeShort(classIndex + 2 + i);
+            }
+
+            out.writeShort(0); // fields
+            out.writeShort(methods.length);
+            int descriptor = 1 + 2 + interfaces.length;
+            for (int i = 0; i < methods.length; i++) {
+                out.writeShort(0x0401);
+                out.writeShort(descriptor + 1 + i);
+                out.writeShort(descriptor);
+                out.writeShort(0);
+            }
+            out.writeShort(0); // attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.apply;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.at.AccessChange;
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.ModifierChange;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+public class ClassFileAccessTransformerTest {
+
+    private static final String TARGET = "test.apply.ApplyTarget";
+    private static final String INNER = TARGET + "$Inner";
+
+    @Test
+    public void testApplyWidensAccess() {
+        assertEquals(Modifier.PUBLIC, AccessTransform.PUBLIC.apply(Modifier.PRIVATE));
+        assertEquals(Modifier.PUBLIC | Modifier.STATIC, AccessTransform.of(AccessChange.PROTECTED).apply(Modifier.PUBLIC | Modifier.STATIC));
+        assertEquals(Modifier.PROTECTED, AccessTransform.of(AccessChange.PROTECTED, ModifierChange.REMOVE).apply(Modifier.FINAL));
+        assertEquals(Modifier.PRIVATE | Modifier.FINAL, AccessTransform.of(ModifierChange.ADD).apply(Modifier.PRIVATE));
+    }
+
+    @Test
+    public void testTransform() throws Exception {
+        AccessTransformSet set = AccessTransformSet.create();
+        AccessTransformSet.Class target = set.getOrCreateClass(TARGET);
+        target.mergeField("value", AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE));
+        target.mergeField("open", AccessTransform.of(AccessChange.PRIVATE));
+        target.mergeAllMethods(AccessTransform.of(AccessChange.PROTECTED));
+        target.mergeMethod(MethodSignature.of("sealed", "()V"), AccessTransform.of(ModifierChange.REMOVE));
+        AccessTransformSet.Class inner = set.getOrCreateClass(INNER);
+        inner.merge(AccessTransform.of(AccessChange.PUBLIC, ModifierChange.REMOVE));
+        inner.mergeMethod(MethodSignature.of("<init>", "()V"), AccessTransform.PUBLIC);
+
+        ClassFileAccessTransformer transformer = new ClassFileAccessTransformer(set);
+        ClassLoader loader = new TransformingClassLoader(transformer);
+
+        Class<?> targetClass = Class.forName(TARGET, true, loader);
+        assertEquals(loader, targetClass.getClassLoader());
+        assertEquals(Modifier.PUBLIC, targetClass.getDeclaredField("value").getModifiers());
+        // Access is never reduced
+        assertEquals(Modifier.PUBLIC, targetClass.getDeclaredField("open").getModifiers());
+        assertEquals(Modifier.PROTECTED, targetClass.getDeclaredMethod("hidden").getModifiers());
+        assertEquals(Modifier.PROTECTED, targetClass.getDeclaredMethod("sealed").getModifiers());
+
+        Class<?> innerClass = Class.forName(INNER, true, loader);
+        assertEquals(Modifier.PUBLIC | Modifier.STATIC, innerClass.getModifiers());
+        assertEquals(Modifier.PUBLIC, innerClass.getDeclaredConstructor().getModifiers());
+
+        // Transforming the class again does not change anything
+        byte[] bytes = readClass(TARGET);
+        assertTrue(transformer.transform(bytes));
+        assertFalse(transformer.transform(bytes));
+    }
+
+    @Test
+    public void testCallsToMethodsThatAreNoLongerPrivateAreVirtual() throws Exception {
+        AccessTransformSet set = AccessTransformSet.create();
+        set.getOrCreateClass("test.apply.Dispatch").mergeMethod(MethodSignature.of("name", "()Ljava/lang/String;"), AccessTransform.PUBLIC);
+        ClassLoader loader = new TransformingClassLoader(new ClassFileAccessTransformer(set));
+
+        Object override = Class.forName("test.apply.DispatchOverride", true, loader).getConstructor().newInstance();
+        assertEquals("DispatchOverride", override.getClass().getMethod("call").invoke(override));
+        assertEquals("DispatchOverride", override.getClass().getMethod("callReference").invoke(override));
+    }
+
+    @Test
+    public void testInvalidClassFile() throws IOException {
+        ClassFileAccessTransformer transformer = new ClassFileAccessTransformer(AccessTransformSet.create());
+        byte[] bytes = readClass(TARGET);
+        assertFalse(transformer.transform(bytes));
+
+        assertThrows(IllegalArgumentException.class, () -> transformer.transform(new byte[16]));
+        assertThrows(IllegalArgumentException.class, () -> transformer.transform(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    private static byte[] readClass(String name) throws IOException {
+        try (InputStream in = ClassFileAccessTransformerTest.class.getResourceAsStream('/' + name.replace('.', '/') + ".class")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static final class TransformingClassLoader extends ClassLoader {
+
+        private final ClassFileAccessTransformer transformer;
+
+        TransformingClassLoader(ClassFileAccessTransformer transformer) {
+            super(TransformingClassLoader.class.getClassLoader());
+            this.transformer = transformer;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith("test.apply.")) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    try {
+                        byte[] bytes = readClass(name);
+                        this.transformer.transform(bytes);
+                        c = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return c;
+            }
+        }
+
+    }
+
+}
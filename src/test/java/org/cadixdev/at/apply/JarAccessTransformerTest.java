@@ -0,0 +1,228 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.apply;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipOutputStream;
+
+public class JarAccessTransformerTest {
+
+    private static final String[] CLASSES = {
+            "test/apply/ApplyTarget.class",
+            "test/apply/ApplyTarget$Inner.class",
+            "test/inheritance/TestClass.class",
+    };
+
+    @Test
+    public void testTransformJar() throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        set.getOrCreateClass("test/apply/ApplyTarget").mergeMethod(MethodSignature.of("hidden", "()V"), AccessTransform.PUBLIC);
+        set.getOrCreateClass("test/apply/ApplyTarget$Inner").merge(AccessTransform.PUBLIC);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\n".getBytes(StandardCharsets.UTF_8));
+        for (String name : CLASSES) {
+            entries.put(name, read(name));
+        }
+        entries.put("test/resource.txt", "resource".getBytes(StandardCharsets.UTF_8));
+
+        Path dir = Files.createTempDirectory("at");
+        Path input = dir.resolve("input.jar");
+        Path output = dir.resolve("output.jar");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(input))) {
+                out.setComment("comment");
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                    // Store one class, to test both compression methods
+                    if (entry.getKey().equals(CLASSES[1])) {
+                        CRC32 crc = new CRC32();
+                        crc.update(entry.getValue());
+                        zipEntry.setMethod(ZipEntry.STORED);
+                        zipEntry.setSize(entry.getValue().length);
+                        zipEntry.setCrc(crc.getValue());
+                    }
+                    out.putNextEntry(zipEntry);
+                    out.write(entry.getValue());
+                    out.closeEntry();
+                }
+            }
+
+            JarAccessTransformer.Result result = new JarAccessTransformer(set, executor).transform(input, output);
+            assertEquals(3, result.getClasses());
+            assertEquals(2, result.getTransformedClasses());
+
+            // ZipInputStream reads the local headers and verifies the CRC
+            ClassFileAccessTransformer transformer = new ClassFileAccessTransformer(set);
+            List<String> names = new ArrayList<>();
+            try (ZipInputStream in = new ZipInputStream(Files.newInputStream(output))) {
+                ZipEntry entry;
+                while ((entry = in.getNextEntry()) != null) {
+                    names.add(entry.getName());
+
+                    byte[] expected = entries.get(entry.getName()).clone();
+                    if (entry.getName().endsWith(".class")) {
+                        assertEquals(!entry.getName().startsWith("test/inheritance"), transformer.transform(expected));
+                    }
+                    assertArrayEquals(expected, readAll(in), entry.getName());
+                }
+            }
+            assertEquals(new ArrayList<>(entries.keySet()), names);
+
+            try (ZipFile zip = new ZipFile(output.toFile())) {
+                assertEquals("comment", zip.getComment());
+                assertEquals(ZipEntry.STORED, zip.getEntry(CLASSES[1]).getMethod());
+                assertEquals(ZipEntry.DEFLATED, zip.getEntry(CLASSES[0]).getMethod());
+            }
+
+            // Entries that are not transformed are copied as they are (the output has no data descriptors)
+            assertEquals(0, new JarAccessTransformer(AccessTransformSet.create(), executor).transform(output, input).getTransformedClasses());
+            assertArrayEquals(Files.readAllBytes(output), Files.readAllBytes(input));
+        } finally {
+            executor.shutdown();
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testTransformOuterAndReferencingClassesOfNestedClass() throws IOException {
+        // Only the nested class is in the set, but its access is also stored in the outer and referencing classes
+        AccessTransformSet set = AccessTransformSet.create();
+        set.getOrCreateClass("test/apply/Outer$Nested").merge(AccessTransform.PUBLIC);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (String name : new String[] { "test/apply/Outer.class", "test/apply/Outer$Nested.class", "test/apply/NestedUser.class", CLASSES[2] }) {
+            entries.put(name, read(name));
+        }
+
+        Path dir = Files.createTempDirectory("at");
+        Path input = dir.resolve("input.jar");
+        Path output = dir.resolve("output.jar");
+        try {
+            try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(input))) {
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    out.putNextEntry(new ZipEntry(entry.getKey()));
+                    out.write(entry.getValue());
+                    out.closeEntry();
+                }
+            }
+
+            JarAccessTransformer.Result result = new JarAccessTransformer(set).transform(input, output);
+            assertEquals(4, result.getClasses());
+            assertEquals(3, result.getTransformedClasses());
+
+            ClassFileAccessTransformer transformer = new ClassFileAccessTransformer(set);
+            try (ZipInputStream in = new ZipInputStream(Files.newInputStream(output))) {
+                ZipEntry entry;
+                while ((entry = in.getNextEntry()) != null) {
+                    byte[] expected = entries.get(entry.getName()).clone();
+                    assertEquals(!entry.getName().equals(CLASSES[2]), transformer.transform(expected), entry.getName());
+                    assertArrayEquals(expected, readAll(in), entry.getName());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testFailedTransformKeepsOutput() throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        set.getOrCreateClass("test/Invalid").merge(AccessTransform.PUBLIC);
+
+        Path dir = Files.createTempDirectory("at");
+        Path input = dir.resolve("input.jar");
+        Path output = dir.resolve("output.jar");
+        try {
+            try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(input))) {
+                out.putNextEntry(new ZipEntry(CLASSES[0]));
+                out.write(read(CLASSES[0]));
+                out.closeEntry();
+                out.putNextEntry(new ZipEntry("test/Invalid.class"));
+                out.write("invalid".getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+            byte[] existing = "existing".getBytes(StandardCharsets.UTF_8);
+            Files.write(output, existing);
+
+            assertThrows(IOException.class, () -> new JarAccessTransformer(set).transform(input, output));
+            assertArrayEquals(existing, Files.readAllBytes(output));
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(2, files.count());
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+            Files.delete(dir);
+        }
+    }
+
+    private static byte[] read(String name) throws IOException {
+        try (InputStream in = JarAccessTransformerTest.class.getResourceAsStream('/' + name)) {
+            return readAll(in);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+}
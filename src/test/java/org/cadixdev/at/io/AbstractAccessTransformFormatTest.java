@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class AbstractAccessTransformFormatTest {
+
+    @Test
+    public void testFormatWithOnlySetHooks() throws IOException {
+        AccessTransformFormat format = new ClassListFormat();
+
+        List<String> visited = new ArrayList<>();
+        format.read(new StringReader("a/A\nb/B\n"), new AccessTransformVisitor() {
+            @Override
+            public void visitClass(String className, AccessTransform transform) {
+                visited.add(className);
+            }
+        });
+        Collections.sort(visited);
+        assertEquals(Arrays.asList("a/A", "b/B"), visited);
+
+        StringWriter writer = new StringWriter();
+        AccessTransformWriter transformWriter = ((StreamingAccessTransformFormat) format).createWriter(writer);
+        transformWriter.visitClass("b/B", AccessTransform.PUBLIC);
+        transformWriter.visitClass("a/A", AccessTransform.PUBLIC);
+        transformWriter.flush();
+        transformWriter.flush();
+        assertEquals("a/A\nb/B\n", writer.toString());
+    }
+
+    // Implements only the hooks that formats had before entries could be streamed
+    private static final class ClassListFormat extends AbstractAccessTransformFormat {
+
+        @Override
+        protected void read(BufferedReader reader, AccessTransformSet set) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                set.getOrCreateClass(line).merge(AccessTransform.PUBLIC);
+            }
+        }
+
+        @Override
+        protected void write(BufferedWriter writer, AccessTransformSet set) throws IOException {
+            List<String> names = new ArrayList<>(set.getClasses().keySet());
+            Collections.sort(names);
+            for (String name : names) {
+                writer.write(name);
+                writer.write('\n');
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.binary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.io.AccessTransformFormats;
+import org.cadixdev.at.io.ByteAccessTransformFormats;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class BinaryAccessTransformFormatTest {
+
+    @Test
+    public void testRoundTrip() throws IOException, URISyntaxException {
+        AccessTransformSet set = AccessTransformFormats.FML.read(
+                Paths.get(BinaryAccessTransformFormatTest.class.getResource("/test_at.cfg").toURI()));
+        set.getOrCreateClass("net/minecraft/Empty");
+
+        Path path = Files.createTempFile("at", ".bin");
+        try {
+            ByteAccessTransformFormats.BINARY.write(path, set);
+            assertEquals(set, ByteAccessTransformFormats.BINARY.read(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testTruncated() throws IOException, URISyntaxException {
+        AccessTransformSet set = AccessTransformFormats.FML.read(
+                Paths.get(BinaryAccessTransformFormatTest.class.getResource("/test_at.cfg").toURI()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteAccessTransformFormats.BINARY.write(out, set);
+        byte[] bytes = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+
+        assertThrows(IOException.class,
+                () -> ByteAccessTransformFormats.BINARY.read(new ByteArrayInputStream(bytes), AccessTransformSet.create()));
+    }
+
+    @Test
+    public void testInvalidStringCount() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putInt(BinaryFormat.MAGIC).putInt(BinaryFormat.VERSION).putInt(Integer.MAX_VALUE).putInt(0);
+
+        assertThrows(IOException.class,
+                () -> ByteAccessTransformFormats.BINARY.read(new ByteArrayInputStream(buffer.array()), AccessTransformSet.create()));
+    }
+
+}
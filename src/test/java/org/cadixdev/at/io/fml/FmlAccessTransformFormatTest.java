@@ -0,0 +1,280 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 Minecrell (https://github.com/Minecrell)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.at.io.fml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.at.AccessChange;
+import org.cadixdev.at.AccessTransform;
+import org.cadixdev.at.AccessTransformSet;
+import org.cadixdev.at.ModifierChange;
+import org.cadixdev.at.io.AccessTransformFormats;
+import org.cadixdev.at.io.AccessTransformVisitor;
+import org.cadixdev.at.io.AccessTransformWriter;
+import org.cadixdev.at.io.StreamingAccessTransformFormat;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class FmlAccessTransformFormatTest {
+
+    @Test
+    public void testMappedReaderMatchesReader() throws IOException, URISyntaxException {
+        Path path = Paths.get(FmlAccessTransformFormatTest.class.getResource("/test_at.cfg").toURI());
+
+        AccessTransformSet expected;
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            expected = AccessTransformFormats.FML.read(reader);
+        }
+
+        assertEquals(expected, AccessTransformFormats.FML.read(path));
+    }
+
+    @Test
+    public void testWriteRoundTrip() throws IOException, URISyntaxException {
+        AccessTransformSet set = AccessTransformFormats.FML.read(
+                Paths.get(FmlAccessTransformFormatTest.class.getResource("/test_at.cfg").toURI()));
+
+        StringWriter writer = new StringWriter();
+        AccessTransformFormats.FML.write(writer, set);
+
+        assertEquals(set, AccessTransformFormats.FML.read(new StringReader(writer.toString())));
+    }
+
+    @Test
+    public void testSortedWriter() throws IOException {
+        AccessTransformSet set = AccessTransformSet.create();
+        AccessTransformSet.Class b = set.getOrCreateClass("test/B");
+        b.mergeMethod(MethodSignature.of("b", "()V"), AccessTransform.PUBLIC);
+        b.mergeMethod(MethodSignature.of("a", "(I)V"), AccessTransform.PUBLIC);
+        b.mergeField("c", AccessTransform.of(ModifierChange.REMOVE));
+        b.mergeField("a", AccessTransform.PUBLIC);
+        b.mergeAllMethods(AccessTransform.of(AccessChange.PROTECTED));
+        set.getOrCreateClass("test/A").merge(AccessTransform.PUBLIC);
+
+        StringWriter writer = new StringWriter();
+        AccessTransformFormats.FML_SORTED.write(writer, set);
+        assertEquals(String.join(System.lineSeparator(),
+                "public test.A",
+                "protected test.B *()",
+                "public test.B a",
+                "public test.B a(I)V",
+                "public test.B b()V",
+                "-f test.B c",
+                ""
+        ), writer.toString());
+
+        // The same contents in a different implementation are written the same way
+        AccessTransformSet compact = AccessTransformSet.createCompact();
+        compact.merge(set);
+        StringWriter other = new StringWriter();
+        AccessTransformFormats.FML_SORTED.write(other, compact);
+        assertEquals(writer.toString(), other.toString());
+
+        // Sorted sets are streamed without sorting
+        AccessTransformSet sorted = AccessTransformSet.createSorted();
+        sorted.merge(set);
+        sorted.getOrCreateClass("test/B").mergeMethod(MethodSignature.of("a", "()V"), AccessTransform.PUBLIC);
+        assertTrue(sorted.getClass("test.B").isPresent());
+        StringWriter streamed = new StringWriter();
+        AccessTransformFormats.FML_SORTED.write(streamed, sorted);
+        assertEquals(writer.toString().replace("public test.B a(I)V", "public test.B a()V" + System.lineSeparator() + "public test.B a(I)V"),
+                streamed.toString());
+    }
+
+    @Test
+    public void testStreamingWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+        AccessTransformWriter transformWriter = ((StreamingAccessTransformFormat) AccessTransformFormats.FML).createWriter(writer);
+        transformWriter.visitClass("net/minecraft/world/World", AccessTransform.PUBLIC);
+        transformWriter.visitAllFields("net/minecraft/world/World", AccessTransform.of(ModifierChange.REMOVE));
+        transformWriter.visitMethod("net/minecraft/world/World", MethodSignature.of("func_72838_d", "(I)Z"),
+                AccessTransform.of(AccessChange.PROTECTED, ModifierChange.ADD));
+        transformWriter.flush();
+
+        assertEquals(String.join(System.lineSeparator(),
+                "public net.minecraft.world.World",
+                "-f net.minecraft.world.World *",
+                "protected+f net.minecraft.world.World func_72838_d(I)Z",
+                ""
+        ), writer.toString());
+    }
+
+    @Test
+    public void testVisitor() throws IOException, URISyntaxException {
+        Path path = Paths.get(FmlAccessTransformFormatTest.class.getResource("/test_at.cfg").toURI());
+
+        List<String> methods = new ArrayList<>();
+        AccessTransformFormats.FML.read(path, new AccessTransformVisitor() {
+            @Override
+            public void visitMethod(String className, MethodSignature signature, AccessTransform transform) {
+                methods.add(className + '.' + signature);
+            }
+        });
+
+        assertEquals(Arrays.asList(
+                "net/minecraft/server/MinecraftServer.func_71240_o()V",
+                "net/minecraft/server/MinecraftServer.func_71233_x(Ljava/lang/String;I)Z",
+                "net/minecraft/world/World.func_72838_d(Lnet/minecraft/entity/Entity;)Z",
+                "net/minecraft/world/World.func_72838_d(Lnet/minecraft/entity/Entity;)Z",
+                "net/minecraft/server/MinecraftServer.func_71240_o()V"
+        ), methods);
+    }
+
+    @Test
+    public void testReadAllMatchesSequentialRead() throws IOException, URISyntaxException {
+        Path path = Paths.get(FmlAccessTransformFormatTest.class.getResource("/test_at.cfg").toURI());
+        Path other = Files.createTempFile("at", ".cfg");
+        try {
+            Files.write(other, Arrays.asList(
+                    "public-f net.minecraft.world.World field_72995_K",
+                    "protected net.minecraft.world.World *()",
+                    "public net.minecraft.block.Block"
+            ), StandardCharsets.UTF_8);
+
+            List<Path> paths = Arrays.asList(path, other, path, other, path);
+
+            AccessTransformSet expected = AccessTransformSet.create();
+            for (Path p : paths) {
+                AccessTransformFormats.FML.read(p, expected);
+            }
+
+            assertEquals(expected, AccessTransformFormats.FML.readAll(paths));
+        } finally {
+            Files.delete(other);
+        }
+    }
+
+    @Test
+    public void testLazyReadMatchesRead() throws IOException, URISyntaxException {
+        Path path = Paths.get(FmlAccessTransformFormatTest.class.getResource("/test_at.cfg").toURI());
+        Path other = Files.createTempFile("at", ".cfg");
+        try {
+            Files.write(other, Arrays.asList(
+                    "public-f net.minecraft.world.World field_72995_K # comment",
+                    "",
+                    "public net.minecraft.block.Block"
+            ), StandardCharsets.UTF_8);
+
+            List<Path> paths = Arrays.asList(path, other);
+            AccessTransformSet expected = AccessTransformFormats.FML.readAll(paths);
+
+            AccessTransformSet lazy = AccessTransformFormats.FML.readAllLazy(paths);
+            assertEquals(expected.getClass("net/minecraft/world/World"), lazy.getClass("net.minecraft.world.World"));
+            assertEquals(expected.getClass("net/minecraft/block/Block"), lazy.getClass("net/minecraft/block/Block"));
+            assertFalse(lazy.getClass("net/minecraft/Missing").isPresent());
+            assertEquals(expected, lazy);
+        } finally {
+            Files.delete(other);
+        }
+    }
+
+    @Test
+    public void testLazyConcurrentLookup() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            lines.add("public test.Class" + i);
+        }
+
+        Path path = Files.createTempFile("at", ".cfg");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Files.write(path, lines, StandardCharsets.UTF_8);
+
+            for (int round = 0; round < 20; round++) {
+                AccessTransformSet lazy = AccessTransformFormats.FML.readLazy(path);
+
+                // All threads look up the same classes at the same time, which must never miss a class being loaded
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        int missing = 0;
+                        for (int i = 0; i < 2000; i++) {
+                            if (!lazy.getClass("test/Class" + i).isPresent()) {
+                                missing++;
+                            }
+                        }
+                        return missing;
+                    }));
+                }
+
+                start.countDown();
+                for (Future<Integer> result : results) {
+                    assertEquals(0, (int) result.get());
+                }
+            }
+        } finally {
+            executor.shutdown();
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testMappedReaderErrors() throws IOException {
+        assertSameError("public");
+        assertSameError("public a b c");
+        assertSameError("pu a");
+        assertSameError("-f a");
+        assertSameError("publicf a");
+        assertSameError("publik a");
+        assertSameError("pub\u00e9lic a");
+    }
+
+    private static void assertSameError(String line) throws IOException {
+        String expected = assertThrows(IllegalArgumentException.class,
+                () -> AccessTransformFormats.FML.read(new StringReader(line))).getMessage();
+
+        Path path = Files.createTempFile("at", ".cfg");
+        try {
+            Files.write(path, Collections.singleton(line), StandardCharsets.UTF_8);
+            assertEquals(expected, assertThrows(IllegalArgumentException.class, () -> AccessTransformFormats.FML.read(path)).getMessage());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+}